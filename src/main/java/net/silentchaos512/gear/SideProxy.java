@@ -47,6 +47,7 @@ import net.silentchaos512.gear.init.*;
 import net.silentchaos512.gear.item.CraftingItems;
 import net.silentchaos512.gear.network.Network;
 import net.silentchaos512.gear.util.Const;
+import net.silentchaos512.gear.util.DataEpoch;
 import net.silentchaos512.gear.world.ModWorldFeatures;
 import net.silentchaos512.lib.event.Greetings;
 import net.silentchaos512.lib.event.InitialSpawnItems;
@@ -78,6 +79,10 @@ class SideProxy implements IProxy {
         MinecraftForge.EVENT_BUS.addListener(SideProxy::onAddReloadListeners);
         MinecraftForge.EVENT_BUS.addListener(SideProxy::serverStarted);
         MinecraftForge.EVENT_BUS.addListener(SideProxy::serverStopping);
+
+        if (ModList.get().isLoaded(Const.CURIOS)) {
+            MinecraftForge.EVENT_BUS.addListener(CuriosCompat::onCurioChange);
+        }
     }
 
     private static void commonSetup(FMLCommonSetupEvent event) {
@@ -173,6 +178,9 @@ class SideProxy implements IProxy {
             MinecraftForge.EVENT_BUS.register(TooltipHandler.INSTANCE);
             MinecraftForge.EVENT_BUS.addListener(this::onPlayerLoggedIn);
 
+            // Data syncs arrive on the network thread
+            DataEpoch.register(() -> Minecraft.getInstance().execute(GearDisplayManager::clearModelCaches));
+
             if (SilentGear.isDevBuild()) {
                 MinecraftForge.EVENT_BUS.register(new DebugOverlay());
             }
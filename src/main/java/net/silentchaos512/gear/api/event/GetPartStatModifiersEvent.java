@@ -0,0 +1,43 @@
+package net.silentchaos512.gear.api.event;
+
+import net.minecraft.world.item.ItemStack;
+import net.silentchaos512.gear.api.part.PartDataList;
+import net.silentchaos512.gear.api.stats.ItemStat;
+import net.silentchaos512.gear.api.stats.StatInstance;
+import net.silentchaos512.gear.gear.part.PartData;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fired once for each part when a gear item's stats are calculated, with the modifiers the part
+ * provides for every stat. Modifiers may be added to or removed from the lists. Addons which
+ * adjust many stats should use this instead of {@link GetStatModifierEvent}, which is fired once
+ * per part for each stat.
+ *
+ * @since 2.8.9
+ */
+@SuppressWarnings("AssignmentOrReturnOfFieldWithMutableType")
+public class GetPartStatModifiersEvent extends GearItemEvent {
+    private final PartData part;
+    private final Map<ItemStat, List<StatInstance>> modifiers;
+
+    public GetPartStatModifiersEvent(ItemStack gear, PartDataList parts, PartData part, Map<ItemStat, List<StatInstance>> modifiers) {
+        super(gear, parts);
+        this.part = part;
+        this.modifiers = modifiers;
+    }
+
+    public PartData getPart() {
+        return part;
+    }
+
+    /**
+     * Gets the part's modifiers for each stat. Stats the part has no modifiers for may be missing.
+     *
+     * @return A mutable map of stats to mutable lists of modifiers
+     */
+    public Map<ItemStat, List<StatInstance>> getModifiers() {
+        return modifiers;
+    }
+}
@@ -30,6 +30,7 @@ public final class GearType {
     private static final Pattern VALID_NAME = Pattern.compile("[^a-z_]");
     private static final Map<String, GearType> VALUES = new HashMap<>();
     private static final Map<GearType, ICoreItem> ITEMS = new HashMap<>();
+    private static int nextIndex = 0;
 
     // A non-existent gear type which matches nothing
     public static final GearType NONE = getOrCreate("none");
@@ -149,6 +150,59 @@ public final class GearType {
         });
     }
 
+    /**
+     * Gets all gear types which have been created with {@code getOrCreate}.
+     *
+     * @return All known gear types
+     */
+    public static Collection<GearType> getValues() {
+        return Collections.unmodifiableCollection(VALUES.values());
+    }
+
+    /**
+     * Gets the number of gear type indices handed out so far. All gear type indices are lower than
+     * this.
+     *
+     * @return The gear type index count
+     */
+    public static int getIndexCount() {
+        return nextIndex;
+    }
+
+    /**
+     * Gets the gear type which {@link #matches(String)} would compare against, so it can be
+     * matched later without any string work. Names are in the same format {@code matches}
+     * accepts.
+     *
+     * @param name The string representation of the type
+     * @return The gear type, or null if there is none (which matches nothing)
+     */
+    @Nullable
+    public static GearType forMatching(String name) {
+        if (name.contains("/")) {
+            return forMatching(name.split("/")[1]);
+        }
+        return VALUES.get(name);
+    }
+
+    /**
+     * Same as {@link #forMatching(String)}, but for a list of names. Names which match nothing
+     * are left out.
+     *
+     * @param names The string representations of the types
+     * @return The gear types
+     */
+    public static List<GearType> forMatching(Collection<String> names) {
+        List<GearType> list = new ArrayList<>();
+        for (String name : names) {
+            GearType type = forMatching(name);
+            if (type != null) {
+                list.add(type);
+            }
+        }
+        return list;
+    }
+
     public static GearType fromJson(JsonObject json, String key) {
         String str = GsonHelper.getAsString(json, key);
         GearType type = get(str);
@@ -163,10 +217,16 @@ public final class GearType {
     private final int animationFrames;
     private final Supplier<ItemStat> durabilityStat;
     private final Set<ToolAction> toolActions;
+    private final int index;
+    // Indices of this type and all its parents. Never modified after construction.
+    private final BitSet ancestors;
 
     private GearType(String name, @Nullable GearType parent, int animationFrames, Supplier<ItemStat> durabilityStat, Set<ToolAction> toolActions) {
+        this.index = nextIndex++;
         this.name = name;
         this.parent = parent;
+        this.ancestors = parent != null ? (BitSet) parent.ancestors.clone() : new BitSet();
+        this.ancestors.set(this.index);
         this.animationFrames = animationFrames;
         this.durabilityStat = durabilityStat;
         this.toolActions = toolActions;
@@ -176,6 +236,16 @@ public final class GearType {
         return name;
     }
 
+    /**
+     * Gets a dense index for this gear type, which can be used to index primitive arrays. Indices
+     * are handed out in creation order and do not change.
+     *
+     * @return The gear type index
+     */
+    public int getIndex() {
+        return index;
+    }
+
     /**
      * Gets the parent gear type, if there is one. The parent type may also have a parent.
      *
@@ -210,7 +280,7 @@ public final class GearType {
     }
 
     public boolean matches(GearType type) {
-        return matches(type.name, true);
+        return matches(type, true);
     }
 
     /**
@@ -223,14 +293,21 @@ public final class GearType {
      * @return True if this type's name is equal to type, or if its parent matches (recursive)
      */
     public boolean matches(String type, boolean includeAll) { //FIXME: The way includesAll is handled does not make sense anymore
-        if (type.contains("/")) {
-            return matches(type.split("/")[1], includeAll);
-        }
-        return (includeAll && "all".equals(type)) || name.equals(type) || (parent != null && parent.matches(type, includeAll));
+        GearType other = forMatching(type);
+        return other != null && matches(other, includeAll);
     }
 
+    /**
+     * Check if this type is the given type, or if one of its parent types is. The type "all" will
+     * match anything if {@code includeAll} is true.
+     *
+     * @param type       The type
+     * @param includeAll Whether or not to consider the "all" type. This should be excluded if
+     *                   trying to match more specific types.
+     * @return True if this type or one of its parents is equal to type
+     */
     public boolean matches(GearType type, boolean includeAll) {
-        return matches(type.name, includeAll);
+        return (includeAll && type == ALL) || this.ancestors.get(type.index);
     }
 
     public boolean isGear() {
@@ -50,6 +50,7 @@ import java.util.function.Supplier;
 public final class PartType {
     private static final Map<ResourceLocation, PartType> VALUES = new LinkedHashMap<>();
     private static final Map<PartGearKey, Optional<CompoundPartItem>> ITEM_CACHE = new HashMap<>();
+    private static int nextIndex = 0;
 
     public static final PartType NONE = create(Builder.builder(SilentGear.getId("none")));
 
@@ -139,6 +140,16 @@ public final class PartType {
         return VALUES.values();
     }
 
+    /**
+     * Gets the number of part type indices handed out so far. All part type indices are lower than
+     * this.
+     *
+     * @return The part type index count
+     */
+    public static int getIndexCount() {
+        return nextIndex;
+    }
+
     public static PartType fromJson(JsonObject json, String key) {
         String str = GsonHelper.getAsString(json, key);
         PartType type = get(new ModResourceLocation(str));
@@ -155,8 +166,10 @@ public final class PartType {
     @Nullable private final Function<GearType, Optional<CompoundPartItem>> compoundPartItem;
     @Nullable private final PartTextures defaultTexture;
     private final String alias; // Workaround for bowstring being renamed to cord and mods breaking stuff as a result
+    private final int index;
 
     private PartType(Builder builder) {
+        this.index = nextIndex++;
         this.name = builder.name;
         this.isRemovable = builder.isRemovable;
         this.isUpgrade = builder.isUpgrade;
@@ -174,6 +187,16 @@ public final class PartType {
         return name;
     }
 
+    /**
+     * Gets a dense index for this part type, which can be used to index primitive arrays. Indices
+     * are handed out in creation order and do not change.
+     *
+     * @return The part type index
+     */
+    public int getIndex() {
+        return index;
+    }
+
     public String getShortName() {
         return SilentGear.shortenId(name);
     }
@@ -4,8 +4,6 @@ import net.minecraft.ChatFormatting;
 import net.silentchaos512.gear.api.item.GearType;
 import net.silentchaos512.utils.Color;
 
-import java.util.Collection;
-
 public class EvenSplitItemStat extends ItemStat {
     private final int splits;
 
@@ -20,7 +18,7 @@ public class EvenSplitItemStat extends ItemStat {
     }
 
     @Override
-    public float compute(float baseValue, boolean clampValue, GearType itemGearType, GearType statGearType, Collection<StatInstance> modifiers) {
+    public float compute(float baseValue, boolean clampValue, GearType itemGearType, GearType statGearType, StatModifierBuffer modifiers) {
         float value = super.compute(baseValue, clampValue, itemGearType, statGearType, modifiers);
         return value / this.splits;
     }
@@ -35,6 +35,7 @@ public class ItemStat extends ForgeRegistryEntry<ItemStat> implements IItemStat
     private final boolean displayAsInt;
     private final DisplayFormat displayFormat;
     private final Function<Float, Float> missingRodFunction;
+    private final int index;
 
     public ItemStat(float defaultValue, float minValue, float maxValue, ChatFormatting nameColor, Properties properties) {
         this(defaultValue, minValue, maxValue, new Color(nameColor.getColor() != null ? nameColor.getColor() : Color.VALUE_WHITE), properties);
@@ -63,9 +64,20 @@ public class ItemStat extends ForgeRegistryEntry<ItemStat> implements IItemStat
             throw new IllegalArgumentException("Default value cannot be bigger than maximum value!");
         }
 
+        this.index = ItemStats.STATS_IN_ORDER.size();
         ItemStats.STATS_IN_ORDER.add(this);
     }
 
+    /**
+     * Gets the position of this stat in {@link ItemStats#allStatsOrdered()}. Indices are dense and
+     * stable for the lifetime of the game, so they can be used to index primitive arrays.
+     *
+     * @return The stat index
+     */
+    public int getIndex() {
+        return index;
+    }
+
     @Override
     public ResourceLocation getStatId() {
         return Objects.requireNonNull(getRegistryName());
@@ -121,6 +133,18 @@ public class ItemStat extends ForgeRegistryEntry<ItemStat> implements IItemStat
     private static final float WEIGHT_BASE_MIN = 2f;
     private static final float WEIGHT_BASE_MAX = 40f;
     private static final float WEIGHT_DEVIATION_COEFF = 2f;
+    private static final int WEIGHT_TABLE_SIZE = 32;
+    private static final double[] WEIGHT_EXPONENTS = new double[WEIGHT_TABLE_SIZE];
+    private static final float[] MIN_BASE_WEIGHTS = new float[WEIGHT_TABLE_SIZE];
+    private static final float[] MAX_BASE_WEIGHTS = new float[WEIGHT_TABLE_SIZE];
+
+    static {
+        for (int i = 0; i < WEIGHT_TABLE_SIZE; ++i) {
+            WEIGHT_EXPONENTS[i] = getWeightExponent(i);
+            MIN_BASE_WEIGHTS[i] = (float) Math.pow(WEIGHT_BASE_MIN, WEIGHT_EXPONENTS[i]);
+            MAX_BASE_WEIGHTS[i] = (float) Math.pow(WEIGHT_BASE_MAX, WEIGHT_EXPONENTS[i]);
+        }
+    }
 
     public float compute(Collection<StatInstance> modifiers) {
         return compute(this.baseValue, modifiers);
@@ -139,38 +163,23 @@ public class ItemStat extends ForgeRegistryEntry<ItemStat> implements IItemStat
         return compute(baseValue, clampValue, gearType, gearType, modifiers);
     }
 
-    @SuppressWarnings("OverlyComplexMethod")
+    /**
+     * Computes the stat value from a collection of modifiers. Subclasses which change how the
+     * value is computed should override {@link #compute(float, boolean, GearType, GearType,
+     * StatModifierBuffer)} instead, which this delegates to.
+     */
     public float compute(float baseValue, boolean clampValue, GearType itemGearType, GearType statGearType, Collection<StatInstance> modifiers) {
+        StatModifierBuffer buffer = new StatModifierBuffer(modifiers.size());
+        buffer.addAll(modifiers);
+        return compute(baseValue, clampValue, itemGearType, statGearType, buffer);
+    }
+
+    public float compute(float baseValue, boolean clampValue, GearType itemGearType, GearType statGearType, StatModifierBuffer modifiers) {
         if (modifiers.isEmpty())
             return baseValue;
 
-        float f0 = baseValue;
-
-        // Average (weighted, used for mains)
-        f0 += getWeightedAverage(modifiers, Operation.AVG);
-
-        // Maximum
-        for (StatInstance mod : modifiers)
-            if (mod.getOp() == StatInstance.Operation.MAX)
-                f0 = Math.max(f0, mod.getValue());
-
-        // Multiplicative
-        float f1 = f0;
-        for (StatInstance mod : modifiers)
-            if (mod.getOp() == StatInstance.Operation.MUL1)
-                f1 += f0 * mod.getValue();
-
-        // Multiplicative2
-        for (StatInstance mod : modifiers)
-            if (mod.getOp() == StatInstance.Operation.MUL2)
-                f1 *= 1.0f + mod.getValue();
-
-        // Additive
-        for (StatInstance mod : modifiers)
-            if (mod.getOp() == StatInstance.Operation.ADD)
-                f1 += mod.getValue();
-
-        return clampValue ? clampValue(f1) : f1;
+        float value = modifiers.evaluate(baseValue);
+        return clampValue ? clampValue(value) : value;
     }
 
     private static float getPrimaryMod(Iterable<StatInstance> modifiers, Operation op) {
@@ -202,9 +211,23 @@ public class ItemStat extends ForgeRegistryEntry<ItemStat> implements IItemStat
     }
 
     private static float getModifierWeight(StatInstance mod, float primaryMod, int count) {
-        float weightBase = WEIGHT_BASE_MIN + WEIGHT_DEVIATION_COEFF * (mod.getValue() - primaryMod) / primaryMod;
+        return getModifierWeight(mod.getValue(), primaryMod, count);
+    }
+
+    static float getModifierWeight(float value, float primaryMod, int count) {
+        float weightBase = WEIGHT_BASE_MIN + WEIGHT_DEVIATION_COEFF * (value - primaryMod) / primaryMod;
         float weightBaseClamped = Mth.clamp(weightBase, WEIGHT_BASE_MIN, WEIGHT_BASE_MAX);
-        return (float) Math.pow(weightBaseClamped, -(count == 0 ? count : 0.5 + 0.5f * count));
+        if (count < WEIGHT_TABLE_SIZE) {
+            // Most modifiers are at or below the primary modifier, so the base is usually the minimum
+            if (weightBaseClamped == WEIGHT_BASE_MIN) return MIN_BASE_WEIGHTS[count];
+            if (weightBaseClamped == WEIGHT_BASE_MAX) return MAX_BASE_WEIGHTS[count];
+            return (float) Math.pow(weightBaseClamped, WEIGHT_EXPONENTS[count]);
+        }
+        return (float) Math.pow(weightBaseClamped, getWeightExponent(count));
+    }
+
+    private static double getWeightExponent(int count) {
+        return -(count == 0 ? count : 0.5 + 0.5f * count);
     }
 
     private static float getMaterialPrimaryMod(Iterable<StatInstance> modifiers, Operation op) {
@@ -152,6 +152,30 @@ public final class ItemStats {
         return Collections.unmodifiableList(STATS_IN_ORDER);
     }
 
+    /**
+     * Gets the number of stats which have been created. This is one more than the highest {@link
+     * ItemStat#getIndex()}.
+     *
+     * @return The number of stats
+     */
+    public static int getStatCount() {
+        return STATS_IN_ORDER.size();
+    }
+
+    /**
+     * Gets a stat by its index. See {@link ItemStat#getIndex()}.
+     *
+     * @param index The stat index
+     * @return The stat, or null if the index is out of bounds
+     */
+    @Nullable
+    public static ItemStat byIndex(int index) {
+        if (index < 0 || index >= STATS_IN_ORDER.size()) {
+            return null;
+        }
+        return STATS_IN_ORDER.get(index);
+    }
+
     public static Collection<ItemStat> allStatsOrderedExcluding(Collection<ItemStat> exclude) {
         Collection<ItemStat> ret = new ArrayList<>(STATS_IN_ORDER);
         ret.removeIf(exclude::contains);
@@ -25,7 +25,7 @@ public class SplitItemStat extends ItemStat {
     }
 
     @Override
-    public float compute(float baseValue, boolean clampValue, GearType itemGearType, GearType statGearType, Collection<StatInstance> modifiers) {
+    public float compute(float baseValue, boolean clampValue, GearType itemGearType, GearType statGearType, StatModifierBuffer modifiers) {
         float value = super.compute(baseValue, clampValue, itemGearType, statGearType, modifiers);
         if (!statGearType.equals(itemGearType) && this.splits.containsKey(itemGearType)) {
             return value * this.splits.get(itemGearType) / this.splitsTotal;
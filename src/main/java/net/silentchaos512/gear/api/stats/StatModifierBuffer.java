@@ -0,0 +1,134 @@
+package net.silentchaos512.gear.api.stats;
+
+import net.silentchaos512.gear.api.stats.StatInstance.Operation;
+
+import java.util.Arrays;
+
+/**
+ * A reusable, primitive buffer of stat modifiers for {@link ItemStat#compute}. Modifier values are
+ * grouped by operation as they are added, keeping the order they were added in, so computing a
+ * stat visits each modifier exactly once and never has to filter by operation or touch a
+ * {@link StatInstance}.
+ * <p>
+ * The result is exactly the same as computing over a collection of stat instances in the same
+ * order. Call {@link #clear()} to reuse the buffer for another stat.
+ */
+public final class StatModifierBuffer {
+    private static final int OPERATION_COUNT = Operation.values().length;
+    private static final int AVG = Operation.AVG.ordinal();
+    private static final int MAX = Operation.MAX.ordinal();
+    private static final int MUL1 = Operation.MUL1.ordinal();
+    private static final int MUL2 = Operation.MUL2.ordinal();
+    private static final int ADD = Operation.ADD.ordinal();
+
+    private final float[][] values = new float[OPERATION_COUNT][];
+    private final int[] counts = new int[OPERATION_COUNT];
+    private int size;
+    private float primaryAvg = -1f;
+
+    public StatModifierBuffer() {
+        this(8);
+    }
+
+    public StatModifierBuffer(int initialCapacity) {
+        for (int i = 0; i < OPERATION_COUNT; ++i) {
+            this.values[i] = new float[Math.max(initialCapacity, 1)];
+        }
+    }
+
+    /**
+     * Removes all modifiers, keeping the allocated arrays.
+     */
+    public void clear() {
+        Arrays.fill(this.counts, 0);
+        this.size = 0;
+        this.primaryAvg = -1f;
+    }
+
+    public void add(StatInstance mod) {
+        add(mod.getOp(), mod.getValue());
+    }
+
+    public void add(Operation op, float value) {
+        int opIndex = op.ordinal();
+        float[] array = this.values[opIndex];
+        int count = this.counts[opIndex];
+        if (count == array.length) {
+            array = Arrays.copyOf(array, array.length * 2);
+            this.values[opIndex] = array;
+        }
+        array[count] = value;
+        this.counts[opIndex] = count + 1;
+        ++this.size;
+
+        // Same as the primary modifier picked by ItemStat#getWeightedAverage
+        if (opIndex == AVG && this.primaryAvg < 0f) {
+            this.primaryAvg = value;
+        }
+    }
+
+    public void addAll(Iterable<StatInstance> modifiers) {
+        for (StatInstance mod : modifiers) {
+            add(mod.getOp(), mod.getValue());
+        }
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Applies all modifiers to the base value, without clamping. The order of floating point
+     * operations matches the original implementation of {@link ItemStat#compute}.
+     *
+     * @param baseValue The base value of the stat
+     * @return The unclamped stat value
+     */
+    float evaluate(float baseValue) {
+        float f0 = baseValue;
+
+        // Average (weighted, used for mains)
+        f0 += getWeightedAverage();
+
+        // Maximum
+        float[] array = this.values[MAX];
+        for (int i = 0, count = this.counts[MAX]; i < count; ++i)
+            f0 = Math.max(f0, array[i]);
+
+        // Multiplicative
+        float f1 = f0;
+        array = this.values[MUL1];
+        for (int i = 0, count = this.counts[MUL1]; i < count; ++i)
+            f1 += f0 * array[i];
+
+        // Multiplicative2
+        array = this.values[MUL2];
+        for (int i = 0, count = this.counts[MUL2]; i < count; ++i)
+            f1 *= 1.0f + array[i];
+
+        // Additive
+        array = this.values[ADD];
+        for (int i = 0, count = this.counts[ADD]; i < count; ++i)
+            f1 += array[i];
+
+        return f1;
+    }
+
+    private float getWeightedAverage() {
+        float primaryMod = this.primaryAvg > 0 ? this.primaryAvg : 1;
+        float[] array = this.values[AVG];
+        int count = this.counts[AVG];
+        float ret = 0;
+        float totalWeight = 0f;
+        for (int i = 0; i < count; ++i) {
+            float weight = ItemStat.getModifierWeight(array[i], primaryMod, i + 1);
+            totalWeight += weight;
+            ret += array[i] * weight;
+        }
+        return count > 0 && totalWeight > 0 ? ret / totalWeight : ret;
+    }
+}
@@ -0,0 +1,63 @@
+package net.silentchaos512.gear.api.stats;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Looks up stats by the IDs stored in packed stat data. Packed data stores stat IDs rather than
+ * indices, so it does not depend on load order and stays readable when other mods add or remove
+ * stats.
+ */
+public final class StatPalette {
+    private static volatile StatPalette current = new StatPalette(new ItemStat[0]);
+
+    private final ItemStat[] stats;
+    private final Map<String, ItemStat> byName;
+
+    private StatPalette(ItemStat[] stats) {
+        this.stats = stats;
+        this.byName = new HashMap<>(stats.length * 2);
+
+        for (ItemStat stat : stats) {
+            this.byName.put(stat.getStatId().toString(), stat);
+        }
+    }
+
+    /**
+     * Gets the palette for all stats which currently exist. The palette is rebuilt if new stats
+     * were created since it was last requested.
+     *
+     * @return The current palette
+     */
+    public static StatPalette get() {
+        StatPalette palette = current;
+        List<ItemStat> allStats = ItemStats.STATS_IN_ORDER;
+        if (palette.stats.length != allStats.size()) {
+            synchronized (StatPalette.class) {
+                palette = current;
+                if (palette.stats.length != allStats.size()) {
+                    palette = new StatPalette(allStats.toArray(new ItemStat[0]));
+                    current = palette;
+                }
+            }
+        }
+        return palette;
+    }
+
+    public int size() {
+        return this.stats.length;
+    }
+
+    /**
+     * Gets the stat with the ID from packed data.
+     *
+     * @param name The stat ID, as a string
+     * @return The stat, or null if no stat has the ID
+     */
+    @Nullable
+    public ItemStat byName(String name) {
+        return this.byName.get(name);
+    }
+}
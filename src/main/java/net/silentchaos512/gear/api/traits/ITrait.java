@@ -146,6 +146,17 @@ public interface ITrait {
 
     void onUpdate(TraitActionContext context, boolean isEquipped);
 
+    /**
+     * How often {@link #onUpdate(TraitActionContext, boolean)} should be called, in ticks. The
+     * trait is updated when the player's tick count is a multiple of this. Items ticked without a
+     * player only update traits with an interval of one.
+     *
+     * @return The update interval in ticks
+     */
+    default int getUpdateInterval() {
+        return 1;
+    }
+
     ItemStack addLootDrops(TraitActionContext context, ItemStack stack);
 
     default CompoundTag write(int level) {
@@ -5,6 +5,7 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonSyntaxException;
+import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.TooltipFlag;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.util.GsonHelper;
@@ -14,13 +15,18 @@ import net.minecraft.network.chat.MutableComponent;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.TextComponent;
 import net.minecraft.ChatFormatting;
+import net.silentchaos512.gear.api.util.IGearComponentInstance;
+import net.silentchaos512.gear.api.util.PartGearKey;
 import net.silentchaos512.gear.client.KeyTracker;
 import net.silentchaos512.gear.gear.trait.TraitManager;
 import net.silentchaos512.gear.gear.trait.TraitSerializers;
+import net.silentchaos512.gear.gear.trait.condition.CompiledTraitConditions;
+import net.silentchaos512.gear.gear.trait.condition.TraitConditionContext;
 import net.silentchaos512.gear.util.DataResource;
 import net.silentchaos512.gear.util.TextUtil;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -29,6 +35,7 @@ public final class TraitInstance implements ITraitInstance {
     private final ITrait trait;
     private final int level;
     private final ImmutableList<ITraitCondition> conditions;
+    @Nullable private final CompiledTraitConditions compiledConditions;
 
     private TraitInstance(ITrait trait, int level, ITraitCondition... conditions) {
         this.trait = trait;
@@ -37,6 +44,7 @@ public final class TraitInstance implements ITraitInstance {
                 .add(this.trait.getConditions().toArray(new ITraitCondition[0]))
                 .add(conditions)
                 .build();
+        this.compiledConditions = CompiledTraitConditions.compile(this.conditions);
     }
 
     /**
@@ -84,6 +92,22 @@ public final class TraitInstance implements ITraitInstance {
         return conditions;
     }
 
+    @Override
+    public boolean conditionsMatch(PartGearKey key, ItemStack gear, List<? extends IGearComponentInstance<?>> components) {
+        return conditionsMatch(new TraitConditionContext(key, gear, components));
+    }
+
+    /**
+     * Checks the conditions against the context's components. Use the same context for every
+     * instance checked against the same components.
+     *
+     * @param context The components to check
+     * @return True if all conditions match, or there are none
+     */
+    public boolean conditionsMatch(TraitConditionContext context) {
+        return this.compiledConditions == null || this.compiledConditions.matches(this.trait, context);
+    }
+
     public MutableComponent getDisplayName() {
         MutableComponent text = this.trait.getDisplayName(this.level).copy();
         if (!conditions.isEmpty()) {
@@ -0,0 +1,57 @@
+package net.silentchaos512.gear.api.util;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * A table of interned keys indexed by two dense indices, like a stat index and a gear type index.
+ * Reads do not lock. Adding a key copies the affected arrays and publishes them all at once, so
+ * readers only ever see complete keys.
+ *
+ * @param <K> The key type
+ */
+final class KeyTable<K> {
+    private volatile Object[][] rows = new Object[0][];
+    private int nextId;
+
+    @SuppressWarnings("unchecked")
+    @Nullable
+    K get(int row, int column) {
+        Object[][] rows = this.rows;
+        if (row < rows.length) {
+            Object[] columns = rows[row];
+            if (columns != null && column < columns.length) {
+                return (K) columns[column];
+            }
+        }
+        return null;
+    }
+
+    synchronized K computeIfAbsent(int row, int column, Supplier<K> factory) {
+        K existing = get(row, column);
+        if (existing != null) {
+            return existing;
+        }
+
+        Object[][] newRows = Arrays.copyOf(this.rows, Math.max(this.rows.length, row + 1));
+        Object[] columns = newRows[row];
+        columns = columns != null ? Arrays.copyOf(columns, Math.max(columns.length, column + 1)) : new Object[column + 1];
+
+        K key = factory.get();
+        columns[column] = key;
+        newRows[row] = columns;
+        this.rows = newRows;
+        return key;
+    }
+
+    /**
+     * Hands out a dense ID for a new key. Must only be called from a factory passed to {@link
+     * #computeIfAbsent(int, int, Supplier)}.
+     *
+     * @return The next ID
+     */
+    int nextId() {
+        return this.nextId++;
+    }
+}
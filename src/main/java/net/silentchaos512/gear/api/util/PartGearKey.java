@@ -1,7 +1,6 @@
 package net.silentchaos512.gear.api.util;
 
 import com.google.gson.JsonParseException;
-import com.mojang.datafixers.util.Pair;
 import net.minecraft.network.FriendlyByteBuf;
 import net.silentchaos512.gear.SilentGear;
 import net.silentchaos512.gear.api.item.GearType;
@@ -9,18 +8,23 @@ import net.silentchaos512.gear.api.part.IPartData;
 import net.silentchaos512.gear.api.part.PartType;
 
 import javax.annotation.Nullable;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
 
+/**
+ * A part type and the gear type it is used in. Keys are interned, so there is only ever one
+ * instance for each combination and keys can be compared by identity. Keys are looked up by part
+ * type index and gear type index without locking.
+ */
 public final class PartGearKey {
-    private static final Map<Pair<GearType, PartType>, PartGearKey> CACHE = new HashMap<>();
+    private static final KeyTable<PartGearKey> TABLE = new KeyTable<>();
 
+    private final int id;
     private final String key;
     private final GearType gearType;
     private final PartType partType;
 
-    private PartGearKey(GearType gearType, PartType partType) {
+    private PartGearKey(GearType gearType, PartType partType, int id) {
+        this.id = id;
         this.key = SilentGear.shortenId(partType.getName()) + "/" + gearType.getName();
         this.gearType = gearType;
         this.partType = partType;
@@ -31,8 +35,11 @@ public final class PartGearKey {
     }
 
     public static PartGearKey of(GearType gearType, PartType partType) {
-        return CACHE.computeIfAbsent(Pair.of(gearType, partType), pair ->
-                new PartGearKey(pair.getFirst(), pair.getSecond()));
+        PartGearKey key = TABLE.get(partType.getIndex(), gearType.getIndex());
+        if (key != null) {
+            return key;
+        }
+        return TABLE.computeIfAbsent(partType.getIndex(), gearType.getIndex(), () -> new PartGearKey(gearType, partType, TABLE.nextId()));
     }
 
     public static PartGearKey ofAll(PartType partType) {
@@ -72,7 +79,7 @@ public final class PartGearKey {
             throw new JsonParseException("Unknown gear type: " + parts[1]);
         }
 
-        return new PartGearKey(gearType, partType);
+        return of(gearType, partType);
     }
 
     public static PartGearKey fromNetwork(FriendlyByteBuf buf) {
@@ -86,6 +93,15 @@ public final class PartGearKey {
         buf.writeResourceLocation(partType.getName());
     }
 
+    /**
+     * Gets a dense ID for this key. IDs are handed out as keys are created and do not change.
+     *
+     * @return The key ID
+     */
+    public int getId() {
+        return id;
+    }
+
     @Override
     public String toString() {
         return key;
@@ -93,14 +109,12 @@ public final class PartGearKey {
 
     @Override
     public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        PartGearKey that = (PartGearKey) o;
-        return Objects.equals(key, that.key);
+        // Keys are interned
+        return this == o;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(key);
+        return id;
     }
 }
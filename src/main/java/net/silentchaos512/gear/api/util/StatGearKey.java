@@ -1,7 +1,6 @@
 package net.silentchaos512.gear.api.util;
 
 import com.google.gson.JsonParseException;
-import com.mojang.datafixers.util.Pair;
 import net.minecraft.network.FriendlyByteBuf;
 import net.silentchaos512.gear.SilentGear;
 import net.silentchaos512.gear.api.item.GearType;
@@ -12,16 +11,24 @@ import net.silentchaos512.gear.api.stats.ItemStats;
 import javax.annotation.Nullable;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Objects;
 
+/**
+ * A stat and the gear type it applies to. Keys are interned, so there is only ever one instance
+ * for each combination and keys can be compared by identity. Keys of registered stats are looked
+ * up by stat index and gear type index without locking.
+ */
 public final class StatGearKey {
-    private static final Map<Pair<IItemStat, GearType>, StatGearKey> CACHE = new HashMap<>();
+    private static final KeyTable<StatGearKey> TABLE = new KeyTable<>();
+    // Keys of stats which are not ItemStats, like LazyItemStat. Guarded by TABLE.
+    private static final Map<String, StatGearKey> OTHER_KEYS = new HashMap<>();
 
+    private final int id;
     private final String key;
     private final IItemStat stat;
     private final GearType gearType;
 
-    private StatGearKey(IItemStat stat, GearType gearType) {
+    private StatGearKey(IItemStat stat, GearType gearType, int id) {
+        this.id = id;
         this.stat = stat;
         this.gearType = gearType;
 
@@ -33,8 +40,19 @@ public final class StatGearKey {
     }
 
     public static StatGearKey of(IItemStat stat, GearType gearType) {
-        return CACHE.computeIfAbsent(Pair.of(stat, gearType), pair ->
-                new StatGearKey(pair.getFirst(), pair.getSecond()));
+        if (stat instanceof ItemStat) {
+            int statIndex = ((ItemStat) stat).getIndex();
+            StatGearKey key = TABLE.get(statIndex, gearType.getIndex());
+            if (key != null) {
+                return key;
+            }
+            return TABLE.computeIfAbsent(statIndex, gearType.getIndex(), () -> new StatGearKey(stat, gearType, TABLE.nextId()));
+        }
+
+        synchronized (TABLE) {
+            String name = stat.getStatId() + "/" + gearType.getName();
+            return OTHER_KEYS.computeIfAbsent(name, k -> new StatGearKey(stat, gearType, TABLE.nextId()));
+        }
     }
 
     @Nullable
@@ -76,7 +94,7 @@ public final class StatGearKey {
             gearType = GearType.ALL;
         }
 
-        return new StatGearKey(stat, gearType);
+        return of(stat, gearType);
     }
 
     @Nullable
@@ -88,6 +106,15 @@ public final class StatGearKey {
         buffer.writeUtf(this.key);
     }
 
+    /**
+     * Gets a dense ID for this key. IDs are handed out as keys are created and do not change.
+     *
+     * @return The key ID
+     */
+    public int getId() {
+        return id;
+    }
+
     @Override
     public String toString() {
         return key;
@@ -95,14 +122,12 @@ public final class StatGearKey {
 
     @Override
     public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        StatGearKey that = (StatGearKey) o;
-        return Objects.equals(key, that.key);
+        // Keys are interned
+        return this == o;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(key);
+        return id;
     }
 }
@@ -2,15 +2,11 @@ package net.silentchaos512.gear.client.material;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
 import net.minecraft.ChatFormatting;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.TextComponent;
 import net.minecraft.resources.ResourceLocation;
-import net.minecraft.server.packs.resources.Resource;
 import net.minecraft.server.packs.resources.ResourceManager;
-import net.minecraft.util.GsonHelper;
 import net.minecraft.world.entity.player.Player;
 import net.silentchaos512.gear.SilentGear;
 import net.silentchaos512.gear.api.material.IMaterial;
@@ -25,12 +21,10 @@ import net.silentchaos512.gear.client.model.part.CompoundPartModelLoader;
 import net.silentchaos512.gear.gear.material.MaterialInstance;
 import net.silentchaos512.gear.gear.material.MaterialManager;
 import net.silentchaos512.gear.util.IEarlySelectiveReloadListener;
+import net.silentchaos512.gear.util.JsonResourceLoader;
 import net.silentchaos512.gear.util.TextUtil;
-import org.apache.commons.io.IOUtils;
 
 import javax.annotation.Nullable;
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 public final class GearDisplayManager implements IEarlySelectiveReloadListener {
@@ -48,81 +42,85 @@ public final class GearDisplayManager implements IEarlySelectiveReloadListener {
 
     @Override
     public void onResourceManagerReload(ResourceManager resourceManager) {
-        CompoundPartModelLoader.clearCaches();
-        FragmentModelLoader.clearCaches();
-        GearModelLoader.clearCaches();
+        clearModelCaches();
 
         ERROR_LIST.clear();
         reloadMaterials(resourceManager);
         reloadParts(resourceManager);
     }
 
+    /**
+     * Clears baked models of all gear, parts and fragments. This is not thread safe, so outside of
+     * resource reloads it must be called on the render thread.
+     */
+    public static void clearModelCaches() {
+        CompoundPartModelLoader.clearCaches();
+        FragmentModelLoader.clearCaches();
+        GearModelLoader.clearCaches();
+    }
+
     private static void reloadMaterials(ResourceManager resourceManager) {
         Collection<ResourceLocation> resources = resourceManager.listResources(PATH_MATERIALS, s -> s.endsWith(".json"));
         if (resources.isEmpty()) return;
 
-        synchronized (MATERIALS) {
-            SilentGear.LOGGER.info("Reloading material model files");
-            MATERIALS.clear();
+        SilentGear.LOGGER.info("Reloading material model files");
+        List<JsonResourceLoader.Entry<IMaterialDisplay>> entries = JsonResourceLoader.load(resourceManager, resources, PATH_MATERIALS, GSON,
+                (name, packName, json) -> MaterialDisplay.deserialize(name, json));
+        Map<ResourceLocation, IMaterialDisplay> loaded = new LinkedHashMap<>();
 
-            String packName = "ERROR";
-            for (ResourceLocation id : resources) {
-                String path = id.getPath().substring(PATH_MATERIALS.length() + 1, id.getPath().length() - ".json".length());
-                ResourceLocation name = new ResourceLocation(id.getNamespace(), path);
-
-                try (Resource iresource = resourceManager.getResource(id)) {
-                    packName = iresource.getSourceName();
-                    JsonObject json = GsonHelper.fromJson(GSON, IOUtils.toString(iresource.getInputStream(), StandardCharsets.UTF_8), JsonObject.class);
-
-                    if (json == null) {
-                        SilentGear.LOGGER.error("Could not load material model {} as it's null or empty", name);
-                    } else {
-                        IMaterialDisplay model = MaterialDisplay.deserialize(name, json);
-                        MATERIALS.put(name, model);
-                    }
-                } catch (IllegalArgumentException | JsonParseException ex) {
-                    SilentGear.LOGGER.error("Parsing error loading material model {}", name, ex);
-                    ERROR_LIST.add(String.format("material:%s (%s)", name, packName));
-                } catch (IOException ex) {
-                    SilentGear.LOGGER.error("Could not read material model {}", name, ex);
-                    ERROR_LIST.add(String.format("material:%s (%s)", name, packName));
+        for (JsonResourceLoader.Entry<IMaterialDisplay> entry : entries) {
+            ResourceLocation name = entry.getName();
+
+            if (entry.getError() != null) {
+                if (entry.isReadError()) {
+                    SilentGear.LOGGER.error("Could not read material model {}", name, entry.getError());
+                } else {
+                    SilentGear.LOGGER.error("Parsing error loading material model {}", name, entry.getError());
                 }
+                ERROR_LIST.add(String.format("material:%s (%s)", name, entry.getPackName()));
+            } else if (entry.getValue() == null) {
+                SilentGear.LOGGER.error("Could not load material model {} as it's null or empty", name);
+            } else {
+                loaded.put(name, entry.getValue());
             }
         }
+
+        synchronized (MATERIALS) {
+            MATERIALS.clear();
+            MATERIALS.putAll(loaded);
+        }
     }
 
     private static void reloadParts(ResourceManager resourceManager) {
         Collection<ResourceLocation> resources = resourceManager.listResources(PATH_PARTS, s -> s.endsWith(".json"));
         if (resources.isEmpty()) return;
 
-        synchronized (PARTS) {
-            SilentGear.LOGGER.info("Reloading part model files");
-            PARTS.clear();
+        SilentGear.LOGGER.info("Reloading part model files");
+        List<JsonResourceLoader.Entry<IPartDisplay>> entries = JsonResourceLoader.load(resourceManager, resources, PATH_PARTS, GSON,
+                (name, packName, json) -> PartDisplay.deserialize(name, json));
+        Map<ResourceLocation, IPartDisplay> loaded = new LinkedHashMap<>();
+
+        for (JsonResourceLoader.Entry<IPartDisplay> entry : entries) {
+            ResourceLocation name = entry.getName();
 
-            String packName = "ERROR";
-            for (ResourceLocation id : resources) {
-                String path = id.getPath().substring(PATH_PARTS.length() + 1, id.getPath().length() - ".json".length());
-                ResourceLocation name = new ResourceLocation(id.getNamespace(), path);
-
-                try (Resource iresource = resourceManager.getResource(id)) {
-                    packName = iresource.getSourceName();
-                    JsonObject json = GsonHelper.fromJson(GSON, IOUtils.toString(iresource.getInputStream(), StandardCharsets.UTF_8), JsonObject.class);
-
-                    if (json == null) {
-                        SilentGear.LOGGER.error("Could not load part model {} as it's null or empty", name);
-                    } else {
-                        IPartDisplay model = PartDisplay.deserialize(name, json);
-                        PARTS.put(name, model);
-                    }
-                } catch (IllegalArgumentException | JsonParseException ex) {
-                    SilentGear.LOGGER.error("Parsing error loading part model {}", name, ex);
-                    ERROR_LIST.add(String.format("part:%s (%s)", name, packName));
-                } catch (IOException ex) {
-                    SilentGear.LOGGER.error("Could not read part model {}", name, ex);
-                    ERROR_LIST.add(String.format("part:%s (%s)", name, packName));
+            if (entry.getError() != null) {
+                if (entry.isReadError()) {
+                    SilentGear.LOGGER.error("Could not read part model {}", name, entry.getError());
+                } else {
+                    SilentGear.LOGGER.error("Parsing error loading part model {}", name, entry.getError());
                 }
+                ERROR_LIST.add(String.format("part:%s (%s)", name, entry.getPackName()));
+            } else if (entry.getValue() == null) {
+                SilentGear.LOGGER.error("Could not load part model {} as it's null or empty", name);
+            } else {
+                loaded.put(name, entry.getValue());
             }
         }
+
+        synchronized (PARTS) {
+            PARTS.clear();
+            PARTS.putAll(loaded);
+        }
     }
 
     public static Collection<IMaterialDisplay> getMaterials() {
@@ -17,6 +17,7 @@ import net.silentchaos512.gear.util.DataResource;
 import net.silentchaos512.gear.util.TraitHelper;
 import top.theillusivec4.curios.api.CuriosApi;
 import top.theillusivec4.curios.api.SlotTypePreset;
+import top.theillusivec4.curios.api.event.CurioChangeEvent;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -42,6 +43,10 @@ public final class CuriosCompat {
         return CurioGearItemCapability.createElytraProvider(stack, item);
     }
 
+    public static void onCurioChange(CurioChangeEvent event) {
+        TraitHelper.invalidateEquippedTraits(event.getEntityLiving());
+    }
+
     public static int getHighestTraitLevel(LivingEntity entity, DataResource<ITrait> trait) {
         LazyOptional<IItemHandlerModifiable> lazy = CuriosApi.getCuriosHelper().getEquippedCurios(entity);
         int max = 0;
@@ -88,6 +88,7 @@ public final class Config {
         public static final ForgeConfigSpec.BooleanValue statsDebugLogging;
         public static final ForgeConfigSpec.BooleanValue modelAndTextureLogging;
         public static final ForgeConfigSpec.BooleanValue worldGenLogging;
+        public static final ForgeConfigSpec.BooleanValue verifyCachedSynergy;
         // Other
         public static final ForgeConfigSpec.BooleanValue showWipText;
 
@@ -385,6 +386,11 @@ public final class Config {
                     .comment("Log details about certain features being adding to biomes and other world generator details")
                     .define("debug.logging.worldGen", true);
 
+            verifyCachedSynergy = builder
+                    .comment("Recalculate part synergy every time a cached value is used, and log an error if they differ.",
+                            "This is slow and only intended for tracking down synergy issues.")
+                    .define("debug.verifyCachedSynergy", false);
+
             // Other random stuff
             showWipText = builder
                     .comment("Shows a \"WIP\" (work in progress) label in the tooltip of certain unfinished, but usable blocks and items")
@@ -0,0 +1,142 @@
+package net.silentchaos512.gear.crafting.ingredient;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraftforge.common.crafting.CompoundIngredient;
+import net.minecraftforge.common.crafting.NBTIngredient;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Maps items to the values (materials, parts...) whose ingredients could match them, so finding
+ * the first value which matches an item only tests a few ingredients instead of every value.
+ * Items which no ingredient lists are rejected with a single map lookup.
+ * <p>
+ * Ingredients which can only match the items they list (vanilla items and tags, NBT ingredients,
+ * custom gems and ingots) are indexed by those items. Any other kind of ingredient might match
+ * items it does not list, so it is tested for every item. Candidates are tested in the order of
+ * the original list, so the same value is found as a full scan would find.
+ * <p>
+ * Tag contents are expanded when the index is built, so it must be rebuilt when tags or any of the
+ * ingredients change. Owners should drop their index through {@link
+ * net.silentchaos512.gear.util.DataEpoch}, which advances when tags are updated.
+ *
+ * @param <T> The type of value
+ */
+public final class IngredientIndex<T> {
+    private static final int[] NONE = new int[0];
+
+    private final Object[] values;
+    private final Ingredient[] ingredients;
+    private final Reference2ObjectMap<Item, int[]> byItem;
+    private final int[] unindexed;
+
+    private IngredientIndex(Object[] values, Ingredient[] ingredients, Reference2ObjectMap<Item, int[]> byItem, int[] unindexed) {
+        this.values = values;
+        this.ingredients = ingredients;
+        this.byItem = byItem;
+        this.unindexed = unindexed;
+    }
+
+    /**
+     * Builds an index of the values. The ingredients are read once, so the index must be rebuilt
+     * if they change.
+     *
+     * @param values      The values, in the order they should be tested
+     * @param ingredients Gets the ingredient of a value
+     * @param <T>         The type of value
+     * @return The index
+     */
+    public static <T> IngredientIndex<T> build(List<? extends T> values, Function<? super T, Ingredient> ingredients) {
+        Ingredient[] ingredientArray = new Ingredient[values.size()];
+        Reference2ObjectMap<Item, IntList> candidates = new Reference2ObjectOpenHashMap<>();
+        IntList unindexed = new IntArrayList();
+
+        for (int i = 0; i < values.size(); ++i) {
+            Ingredient ingredient = ingredients.apply(values.get(i));
+            ingredientArray[i] = ingredient;
+            ItemStack[] items = isKeyedByItem(ingredient) ? getItems(ingredient) : null;
+
+            if (items == null) {
+                unindexed.add(i);
+                continue;
+            }
+
+            for (ItemStack stack : items) {
+                IntList list = candidates.computeIfAbsent(stack.getItem(), item -> new IntArrayList());
+                // Tags may list the same item more than once
+                if (list.isEmpty() || list.getInt(list.size() - 1) != i) {
+                    list.add(i);
+                }
+            }
+        }
+
+        Reference2ObjectMap<Item, int[]> byItem = new Reference2ObjectOpenHashMap<>(candidates.size());
+        candidates.forEach((item, list) -> byItem.put(item, list.toIntArray()));
+        return new IngredientIndex<>(values.toArray(), ingredientArray, byItem, unindexed.toIntArray());
+    }
+
+    private static boolean isKeyedByItem(Ingredient ingredient) {
+        if (ingredient.getClass() == Ingredient.class
+                || ingredient instanceof NBTIngredient
+                || ingredient instanceof CustomCompoundIngredient) {
+            return true;
+        }
+        if (ingredient instanceof CompoundIngredient) {
+            for (Ingredient child : ((CompoundIngredient) ingredient).getChildren()) {
+                if (!isKeyedByItem(child)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @Nullable
+    private static ItemStack[] getItems(Ingredient ingredient) {
+        try {
+            return ingredient.getItems();
+        } catch (RuntimeException ex) {
+            // Test it the slow way instead
+            return null;
+        }
+    }
+
+    /**
+     * Finds the first value whose ingredient matches the item.
+     *
+     * @param stack The item
+     * @return The first matching value, or null if none match
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    public T find(ItemStack stack) {
+        int[] indexed = this.byItem.getOrDefault(stack.getItem(), NONE);
+        int i = 0;
+        int j = 0;
+
+        // Merge the two lists, both of which are in the original order
+        while (i < indexed.length || j < this.unindexed.length) {
+            int next;
+            if (j >= this.unindexed.length || (i < indexed.length && indexed[i] < this.unindexed[j])) {
+                next = indexed[i++];
+            } else {
+                next = this.unindexed[j++];
+            }
+
+            if (this.ingredients[next].test(stack)) {
+                return (T) this.values[next];
+            }
+        }
+
+        return null;
+    }
+}
@@ -249,7 +249,9 @@ public final class GearEvents {
             final BlockState state = event.getState();
 
             if (tool.isCorrectToolForDrops(state)) {
-                int level = TraitHelper.getTraitLevel(tool, Const.Traits.LUSTROUS);
+                int level = GearHelper.getLustrousLevel(tool);
+                if (level <= 0) return;
+
                 int light = getLightForLustrousTrait(player.level, player.blockPosition());
                 //use getNewSpeed() instead of getOriginalSpeed() to support other mods that are changing the break speed with this event.
                 event.setNewSpeed(event.getNewSpeed() + getLustrousSpeedBonus(level, light));
@@ -405,7 +407,7 @@ public final class GearEvents {
 
             // Turtle trait
             // TODO: May want to add player conditions to wielder effect traits, for more control and possibilities for pack devs.
-            if (!event.player.isEyeInFluid(FluidTags.WATER) && TraitHelper.hasTrait(event.player.getItemBySlot(EquipmentSlot.HEAD), Const.Traits.TURTLE)) {
+            if (!event.player.isEyeInFluid(FluidTags.WATER) && TraitHelper.hasTrait(event.player, EquipmentSlot.HEAD, Const.Traits.TURTLE)) {
                 // Vanilla duration is 200, but that causes flickering numbers/icon
                 event.player.addEffect(new MobEffectInstance(MobEffects.WATER_BREATHING, 210, 0, false, false, true));
             }
@@ -421,6 +423,11 @@ public final class GearEvents {
         }
     }
 
+    @SubscribeEvent
+    public static void onEquipmentChange(LivingEquipmentChangeEvent event) {
+        TraitHelper.invalidateEquippedTraits(event.getEntityLiving());
+    }
+
     private static void tickMagnetic(Player player, int magneticLevel) {
         if (player.isCrouching()) return;
 
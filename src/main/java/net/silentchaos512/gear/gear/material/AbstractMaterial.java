@@ -49,11 +49,16 @@ public abstract class AbstractMaterial implements IMaterial {
     protected final Map<PartType, StatModifierMap> stats = new LinkedHashMap<>();
     protected final Map<PartType, List<TraitInstance>> traits = new LinkedHashMap<>();
     protected final List<String> blacklistedGearTypes = new ArrayList<>();
+    // blacklistedGearTypes parsed at load, so checks need no string matching
+    List<GearType> parsedBlacklist = Collections.emptyList();
 
     protected Component displayName;
     @Nullable protected Component namePrefix = null;
     protected IMaterialDisplay displayProperties = DefaultMaterialDisplay.INSTANCE;
 
+    // Position in MaterialManager's stat table, set when the table is built
+    int statTableIndex = -1;
+
     protected AbstractMaterial(ResourceLocation materialId, String packName) {
         this.materialId = materialId;
         this.packName = packName;
@@ -153,6 +158,11 @@ public abstract class AbstractMaterial implements IMaterial {
 
     @Override
     public Collection<StatInstance> getStatModifiers(IMaterialInstance material, PartType partType, StatGearKey key, ItemStack gear) {
+        List<StatInstance> fromTable = MaterialManager.getStatTable().get(this, partType, key);
+        if (fromTable != null) {
+            return fromTable;
+        }
+
         Collection<StatInstance> ret = new ArrayList<>(stats.getOrDefault(partType, StatModifierMap.EMPTY_STAT_MAP).get(key));
         if (ret.isEmpty() && getParent() != null) {
             ret.addAll(getParent().getStatModifiers(material, partType, key, gear));
@@ -196,8 +206,8 @@ public abstract class AbstractMaterial implements IMaterial {
     }
 
     private boolean isGearTypeBlacklisted(GearType gearType) {
-        for (String s : this.blacklistedGearTypes) {
-            if (gearType.matches(s)) {
+        for (GearType type : this.parsedBlacklist) {
+            if (gearType.matches(type)) {
                 return true;
             }
         }
@@ -360,6 +370,7 @@ public abstract class AbstractMaterial implements IMaterial {
                 if (blacklist != null) {
                     ret.blacklistedGearTypes.clear();
                     blacklist.forEach(e -> ret.blacklistedGearTypes.add(e.getAsString()));
+                    ret.parsedBlacklist = GearType.forMatching(ret.blacklistedGearTypes);
                 } else if (ret.simple && ret.parent == null) {
                     throw new JsonSyntaxException("Expected 'availability' to be an object");
                 }
@@ -533,6 +544,7 @@ public abstract class AbstractMaterial implements IMaterial {
             for (int i = 0; i < blacklistSize; ++i) {
                 material.blacklistedGearTypes.add(buffer.readUtf());
             }
+            material.parsedBlacklist = GearType.forMatching(material.blacklistedGearTypes);
         }
 
         private void readStats(FriendlyByteBuf buffer, T material) {
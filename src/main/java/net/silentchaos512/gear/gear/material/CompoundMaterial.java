@@ -20,8 +20,10 @@ import net.silentchaos512.gear.api.traits.TraitInstance;
 import net.silentchaos512.gear.api.util.PartGearKey;
 import net.silentchaos512.gear.api.util.StatGearKey;
 import net.silentchaos512.gear.client.material.CompoundMaterialDisplay;
+import net.silentchaos512.gear.gear.trait.condition.TraitConditionContext;
 import net.silentchaos512.gear.item.CompoundMaterialItem;
 import net.silentchaos512.gear.network.SyncMaterialCraftingItemsPacket;
+import net.silentchaos512.gear.util.EventHelper;
 import net.silentchaos512.gear.util.ModResourceLocation;
 import net.silentchaos512.gear.util.SynergyUtils;
 import net.silentchaos512.gear.util.TraitHelper;
@@ -171,16 +173,20 @@ public class CompoundMaterial implements IMaterial { // TODO: Extend AbstractMat
         }
 
         MaterialInstance matInst = material instanceof MaterialInstance ? (MaterialInstance) material : null;
-        GetMaterialStatsEvent event = null;
-        if (matInst != null) {
+        List<StatInstance> ret;
+        if (matInst == null) {
+            ret = new ArrayList<>();
+        } else if (EventHelper.hasListeners(GetMaterialStatsEvent.class)) {
             // FIXME: Potentially bad cast, need to rework event
-            event = new GetMaterialStatsEvent(matInst, stat, partType, statMods);
+            GetMaterialStatsEvent event = new GetMaterialStatsEvent(matInst, stat, partType, statMods);
             MinecraftForge.EVENT_BUS.post(event);
+            ret = new ArrayList<>(event.getModifiers());
+        } else {
+            ret = new ArrayList<>(statMods);
         }
 
         // Average together all modifiers of the same op. This makes things like rods with varying
         // numbers of materials more "sane".
-        List<StatInstance> ret = new ArrayList<>(event != null ? event.getModifiers() : Collections.emptyList());
         for (StatInstance.Operation op : StatInstance.Operation.values()) {
             Collection<StatInstance> modsForOp = ret.stream().filter(s -> s.getOp() == op).collect(Collectors.toList());
             if (modsForOp.size() > 1) {
@@ -239,9 +245,10 @@ public class CompoundMaterial implements IMaterial { // TODO: Extend AbstractMat
         List<IMaterialInstance> materials = new ArrayList<>(getMaterials(material));
         List<TraitInstance> traits = TraitHelper.getTraits(materials, partKey, ItemStack.EMPTY);
         Collection<TraitInstance> ret = new ArrayList<>();
+        TraitConditionContext context = new TraitConditionContext(partKey, ItemStack.EMPTY, materials);
 
         for (TraitInstance inst : traits) {
-            if (inst.conditionsMatch(partKey, ItemStack.EMPTY, materials)) {
+            if (inst.conditionsMatch(context)) {
                 ret.add(inst);
             }
         }
@@ -17,6 +17,7 @@ import net.silentchaos512.gear.item.CraftedMaterialItem;
 import net.silentchaos512.gear.util.ModResourceLocation;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashSet;
@@ -59,7 +60,7 @@ public class CraftedMaterial extends AbstractMaterial {
 
     @Override
     public Collection<StatInstance> getStatModifiers(IMaterialInstance material, PartType partType, StatGearKey key, ItemStack gear) {
-        Collection<StatInstance> ret = super.getStatModifiers(material, partType, key, gear);
+        Collection<StatInstance> ret = new ArrayList<>(super.getStatModifiers(material, partType, key, gear));
         IMaterialInstance base = getBaseMaterial(material);
         ret.addAll(base.getStatModifiers(partType, key, gear));
         return ret;
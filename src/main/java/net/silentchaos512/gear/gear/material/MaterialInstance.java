@@ -26,7 +26,9 @@ import net.silentchaos512.gear.api.traits.TraitInstance;
 import net.silentchaos512.gear.api.util.PartGearKey;
 import net.silentchaos512.gear.api.util.StatGearKey;
 import net.silentchaos512.gear.gear.part.RepairContext;
+import net.silentchaos512.gear.util.DataEpoch;
 import net.silentchaos512.gear.util.DataResource;
+import net.silentchaos512.gear.util.EventHelper;
 import net.silentchaos512.gear.util.GearData;
 import net.silentchaos512.gear.util.GearHelper;
 import net.silentchaos512.lib.util.InventoryUtils;
@@ -35,9 +37,14 @@ import net.silentchaos512.utils.Color;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class MaterialInstance implements IMaterialInstance {
-    private static final Map<ResourceLocation, MaterialInstance> QUICK_CACHE = new HashMap<>();
+    private static final Map<ResourceLocation, MaterialInstance> QUICK_CACHE = new ConcurrentHashMap<>();
+
+    static {
+        DataEpoch.register(QUICK_CACHE::clear);
+    }
 
     private final IMaterial material;
     @Deprecated private final MaterialGrade grade;
@@ -64,7 +71,13 @@ public final class MaterialInstance implements IMaterialInstance {
     }
 
     public static MaterialInstance of(IMaterial material) {
-        return QUICK_CACHE.computeIfAbsent(material.getId(), id -> new MaterialInstance(material));
+        MaterialInstance cached = QUICK_CACHE.get(material.getId());
+        // Could be a material from before a reload
+        if (cached == null || cached.material != material) {
+            cached = new MaterialInstance(material);
+            QUICK_CACHE.put(material.getId(), cached);
+        }
+        return cached;
     }
 
     public static MaterialInstance of(IMaterial material, MaterialGrade grade) {
@@ -145,7 +158,8 @@ public final class MaterialInstance implements IMaterialInstance {
 
     @Override
     public Collection<StatInstance> getStatModifiers(PartType partType, StatGearKey key, ItemStack gear) {
-        List<StatInstance> mods = new ArrayList<>(material.getStatModifiers(this, partType, key, gear));
+        // Usually the material's table list, which is only copied if something needs to change it
+        Collection<StatInstance> mods = material.getStatModifiers(this, partType, key, gear);
 
         ItemStat stat = ItemStats.get(key.getStat());
         if (stat == null) {
@@ -157,8 +171,18 @@ public final class MaterialInstance implements IMaterialInstance {
 //        getEnchantmentModifiedStats(mods, key);
 
         // Material modifiers (grades, starcharged, etc.)
-        for (IMaterialModifier materialModifier : getModifiers()) {
-            mods = materialModifier.modifyStats(partType, key, mods);
+        Collection<IMaterialModifier> materialModifiers = getModifiers();
+        if (!materialModifiers.isEmpty()) {
+            // Modifiers return new lists rather than changing the one they are given
+            List<StatInstance> list = mods instanceof List ? (List<StatInstance>) mods : new ArrayList<>(mods);
+            for (IMaterialModifier materialModifier : materialModifiers) {
+                list = materialModifier.modifyStats(partType, key, list);
+            }
+            mods = list;
+        }
+
+        if (!EventHelper.hasListeners(GetMaterialStatsEvent.class)) {
+            return mods;
         }
 
         GetMaterialStatsEvent event = new GetMaterialStatsEvent(this, stat, partType, mods);
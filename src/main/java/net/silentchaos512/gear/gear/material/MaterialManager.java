@@ -1,7 +1,7 @@
 package net.silentchaos512.gear.gear.material;
 
 import com.google.common.collect.HashMultimap;
-import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Multimap;
 import com.google.gson.*;
 import net.minecraft.ChatFormatting;
@@ -10,24 +10,23 @@ import net.minecraft.network.chat.MutableComponent;
 import net.minecraft.network.chat.TextComponent;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
-import net.minecraft.server.packs.resources.Resource;
 import net.minecraft.server.packs.resources.ResourceManager;
 import net.minecraft.server.packs.resources.ResourceManagerReloadListener;
-import net.minecraft.util.GsonHelper;
 import net.minecraft.world.item.ItemStack;
 import net.minecraftforge.common.crafting.CraftingHelper;
 import net.minecraftforge.network.NetworkEvent;
 import net.silentchaos512.gear.SilentGear;
 import net.silentchaos512.gear.api.material.IMaterial;
+import net.silentchaos512.gear.crafting.ingredient.IngredientIndex;
 import net.silentchaos512.gear.network.SyncMaterialsPacket;
+import net.silentchaos512.gear.util.DataEpoch;
+import net.silentchaos512.gear.util.JsonResourceLoader;
+import net.silentchaos512.gear.util.RegistrySnapshot;
 import net.silentchaos512.gear.util.TextUtil;
-import org.apache.commons.io.IOUtils;
 import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.MarkerManager;
 
 import javax.annotation.Nullable;
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -40,9 +39,18 @@ public class MaterialManager implements ResourceManagerReloadListener {
     public static final Marker MARKER = MarkerManager.getMarker("MaterialManager");
 
     private static final String DATA_PATH = "silentgear_materials";
-    private static final Map<ResourceLocation, IMaterial> MATERIALS = Collections.synchronizedMap(new LinkedHashMap<>());
+    // Guards changes to the snapshot, error lists and item index. Reading the snapshot needs no lock.
+    private static final Object LOCK = new Object();
+    private static volatile RegistrySnapshot<IMaterial> snapshot = RegistrySnapshot.empty();
     private static final Collection<String> ERROR_LIST = new ArrayList<>();
     private static final Collection<String> INGREDIENT_CONFLICT_LIST = new ArrayList<>();
+    private static volatile MaterialStatTable statTable = MaterialStatTable.EMPTY;
+    // Built when first needed, since tags may not be bound yet when materials are loaded
+    @Nullable private static volatile IngredientIndex<IMaterial> itemIndex;
+
+    static {
+        DataEpoch.register(MaterialManager::invalidateItemIndex);
+    }
 
     @Override
     public void onResourceManagerReload(ResourceManager resourceManager) {
@@ -52,41 +60,47 @@ public class MaterialManager implements ResourceManagerReloadListener {
         Multimap<String, IMaterial> ingredientConflicts = HashMultimap.create();
         Collection<ResourceLocation> skippedList = new ArrayList<>();
 
-        synchronized (MATERIALS) {
-            MATERIALS.clear();
-            ERROR_LIST.clear();
-            SilentGear.LOGGER.info(MARKER, "Reloading material files");
-
-            for (ResourceLocation id : resources) {
-                String path = id.getPath().substring(DATA_PATH.length() + 1, id.getPath().length() - ".json".length());
-                ResourceLocation name = new ResourceLocation(id.getNamespace(), path);
-
-                String packName = "ERROR";
-                try (Resource iresource = resourceManager.getResource(id)) {
-                    packName = iresource.getSourceName();
-                    JsonObject json = GsonHelper.fromJson(GSON, IOUtils.toString(iresource.getInputStream(), StandardCharsets.UTF_8), JsonObject.class);
-                    if (json == null) {
-                        // Something is very wrong or the JSON is somehow empty
-                        SilentGear.LOGGER.error(MARKER, "Could not load material {} as it's null or empty", name);
-                    } else if (!CraftingHelper.processConditions(json, "conditions")) {
-                        // Conditions not met, so do not load the material
-                        skippedList.add(name);
-                    } else {
-                        // Attempt to deserialize the material
-                        IMaterial material = MaterialSerializers.deserialize(name, packName, json);
-                        MATERIALS.put(material.getId(), material);
-                        addIngredientChecks(ingredientConflicts, material, json);
-                    }
-                } catch (IllegalArgumentException | JsonParseException ex) {
-                    SilentGear.LOGGER.error(MARKER, "Parsing error loading material {}", name, ex);
-                    ERROR_LIST.add(String.format("%s (%s)", name, packName));
-                } catch (IOException ex) {
-                    SilentGear.LOGGER.error(MARKER, "Could not read material {}", name, ex);
-                    ERROR_LIST.add(String.format("%s (%s)", name, packName));
+        SilentGear.LOGGER.info(MARKER, "Reloading material files");
+        List<JsonResourceLoader.Entry<IMaterial>> entries = JsonResourceLoader.load(resourceManager, resources, DATA_PATH, GSON, (name, packName, json) -> {
+            if (!CraftingHelper.processConditions(json, "conditions")) {
+                // Conditions not met, so do not load the material
+                return null;
+            }
+            return MaterialSerializers.deserialize(name, packName, json);
+        });
+
+        Map<ResourceLocation, IMaterial> loaded = new LinkedHashMap<>();
+        Collection<String> errors = new ArrayList<>();
+
+        for (JsonResourceLoader.Entry<IMaterial> entry : entries) {
+            ResourceLocation name = entry.getName();
+            IMaterial material = entry.getValue();
+
+            if (entry.getError() != null) {
+                if (entry.isReadError()) {
+                    SilentGear.LOGGER.error(MARKER, "Could not read material {}", name, entry.getError());
+                } else {
+                    SilentGear.LOGGER.error(MARKER, "Parsing error loading material {}", name, entry.getError());
                 }
+                errors.add(String.format("%s (%s)", name, entry.getPackName()));
+            } else if (entry.getJson() == null) {
+                // Something is very wrong or the JSON is somehow empty
+                SilentGear.LOGGER.error(MARKER, "Could not load material {} as it's null or empty", name);
+            } else if (material == null) {
+                skippedList.add(name);
+            } else {
+                loaded.put(material.getId(), material);
+                addIngredientChecks(ingredientConflicts, material, entry.getJson());
             }
         }
 
+        synchronized (LOCK) {
+            ERROR_LIST.clear();
+            ERROR_LIST.addAll(errors);
+            publish(loaded);
+        }
+
+        DataEpoch.advance();
         checkForIngredientConflicts(ingredientConflicts);
         logSkippedMaterials(skippedList);
     }
@@ -121,66 +135,109 @@ public class MaterialManager implements ResourceManagerReloadListener {
         }
     }
 
+    // Must hold LOCK
+    private static void publish(Map<ResourceLocation, IMaterial> materials) {
+        RegistrySnapshot<IMaterial> newSnapshot = RegistrySnapshot.of(materials);
+        // Publish first, since building the table looks up parent materials through get
+        snapshot = newSnapshot;
+        statTable = MaterialStatTable.build(newSnapshot.getValues());
+    }
+
+    /**
+     * Gets the currently loaded materials. This is replaced on every reload and sync.
+     *
+     * @return The current snapshot
+     */
+    public static RegistrySnapshot<IMaterial> getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return An immutable list of all materials, in load order
+     */
     public static List<IMaterial> getValues() {
-        return getValues(true);
+        return snapshot.getValues();
     }
 
+    /**
+     * @param includeChildren Whether to include materials which have a parent
+     * @return An immutable list of materials, in load order
+     */
     public static List<IMaterial> getValues(boolean includeChildren) {
-        synchronized (MATERIALS) {
-            List<IMaterial> list = new ArrayList<>();
-            for (IMaterial m : MATERIALS.values()) {
-                if (includeChildren || m.getParent() == null) {
-                    list.add(m);
-                }
+        List<IMaterial> values = snapshot.getValues();
+        if (includeChildren) {
+            return values;
+        }
+
+        ImmutableList.Builder<IMaterial> builder = ImmutableList.builder();
+        for (IMaterial m : values) {
+            if (m.getParent() == null) {
+                builder.add(m);
             }
-            return list;
         }
+        return builder.build();
     }
 
     public static List<IMaterial> getChildren(IMaterial material) {
-        synchronized (MATERIALS) {
-            List<IMaterial> list = new ArrayList<>();
-            for (IMaterial m : MATERIALS.values()) {
-                if (m.getParent() == material) {
-                    list.add(m);
-                }
+        ImmutableList.Builder<IMaterial> builder = ImmutableList.builder();
+        for (IMaterial m : snapshot.getValues()) {
+            if (m.getParent() == material) {
+                builder.add(m);
             }
-            return list;
         }
+        return builder.build();
     }
 
     @Nullable
     public static IMaterial get(@Nullable ResourceLocation id) {
         if (id == null) return null;
+        return snapshot.get(id);
+    }
 
-        synchronized (MATERIALS) {
-            return MATERIALS.get(id);
-        }
+    static MaterialStatTable getStatTable() {
+        return statTable;
     }
 
     @Nullable
     public static IMaterial from(ItemStack stack) {
         if (stack.isEmpty()) return null;
 
-        for (IMaterial material : getValues()) {
-            if (material.getIngredient().test(stack)) {
-                return material;
+        IngredientIndex<IMaterial> index = itemIndex;
+        if (index == null) {
+            index = buildItemIndex();
+        }
+        return index.find(stack);
+    }
+
+    private static IngredientIndex<IMaterial> buildItemIndex() {
+        synchronized (LOCK) {
+            IngredientIndex<IMaterial> index = itemIndex;
+            if (index == null) {
+                index = IngredientIndex.build(snapshot.getValues(), IMaterial::getIngredient);
+                itemIndex = index;
             }
+            return index;
         }
+    }
 
-        return null;
+    private static void invalidateItemIndex() {
+        synchronized (LOCK) {
+            itemIndex = null;
+        }
     }
 
     public static void handleSyncPacket(SyncMaterialsPacket msg, Supplier<NetworkEvent.Context> ctx) {
-        synchronized (MATERIALS) {
-            Map<ResourceLocation, IMaterial> oldMaterials = ImmutableMap.copyOf(MATERIALS);
-            MATERIALS.clear();
+        synchronized (LOCK) {
+            RegistrySnapshot<IMaterial> oldMaterials = snapshot;
+            Map<ResourceLocation, IMaterial> materials = new LinkedHashMap<>();
             for (IMaterial mat : msg.getMaterials()) {
                 mat.retainData(oldMaterials.get(mat.getId()));
-                MATERIALS.put(mat.getId(), mat);
+                materials.put(mat.getId(), mat);
             }
-            SilentGear.LOGGER.info("Read {} materials from server", MATERIALS.size());
+            publish(materials);
+            SilentGear.LOGGER.info("Read {} materials from server", materials.size());
         }
+        DataEpoch.advance();
         ctx.get().setPacketHandled(true);
     }
 
@@ -0,0 +1,183 @@
+package net.silentchaos512.gear.gear.material;
+
+import com.google.common.collect.ImmutableList;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.ItemStack;
+import net.silentchaos512.gear.SilentGear;
+import net.silentchaos512.gear.api.item.GearType;
+import net.silentchaos512.gear.api.material.IMaterial;
+import net.silentchaos512.gear.api.material.IMaterialInstance;
+import net.silentchaos512.gear.api.part.PartType;
+import net.silentchaos512.gear.api.stats.IItemStat;
+import net.silentchaos512.gear.api.stats.ItemStat;
+import net.silentchaos512.gear.api.stats.ItemStats;
+import net.silentchaos512.gear.api.stats.StatInstance;
+import net.silentchaos512.gear.api.stats.StatModifierMap;
+import net.silentchaos512.gear.api.util.StatGearKey;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Flattened stat modifiers of all loaded materials, built by {@link MaterialManager} after each
+ * reload. Entries are indexed by [material][part type][stat][gear type], with both parent material
+ * and parent gear type fallbacks already resolved, so a lookup is a few array reads.
+ * <p>
+ * Only materials whose stat modifiers do not depend on the material instance are included. That
+ * is, the material and all of its parents must use {@link AbstractMaterial}'s implementation of
+ * {@code getStatModifiers}. Lookups for anything else return null, and the caller should compute
+ * the modifiers itself.
+ */
+final class MaterialStatTable {
+    @SuppressWarnings("unchecked")
+    static final MaterialStatTable EMPTY = new MaterialStatTable(new AbstractMaterial[0], new List[0][][][]);
+
+    private static final Map<Class<?>, Boolean> STATIC_STATS_CLASSES = new HashMap<>();
+
+    private final AbstractMaterial[] materials;
+    private final List<StatInstance>[][][][] entries;
+
+    private MaterialStatTable(AbstractMaterial[] materials, List<StatInstance>[][][][] entries) {
+        this.materials = materials;
+        this.entries = entries;
+    }
+
+    /**
+     * Gets the stat modifiers for the material, exactly as {@link
+     * AbstractMaterial#getStatModifiers(IMaterialInstance, PartType, StatGearKey, ItemStack)}
+     * would.
+     *
+     * @param material The material
+     * @param partType The part type
+     * @param key      The stat and gear type
+     * @return An unmodifiable list of stat modifiers, or null if the table does not know the
+     * answer
+     */
+    @Nullable
+    List<StatInstance> get(AbstractMaterial material, PartType partType, StatGearKey key) {
+        int materialIndex = material.statTableIndex;
+        if (materialIndex < 0 || materialIndex >= this.materials.length || this.materials[materialIndex] != material) {
+            return null;
+        }
+
+        IItemStat stat = key.getStat();
+        if (!(stat instanceof ItemStat)) {
+            return null;
+        }
+
+        List<StatInstance>[][][] byPartType = this.entries[materialIndex];
+        int partTypeIndex = partType.getIndex();
+        if (partTypeIndex >= byPartType.length || byPartType[partTypeIndex] == null) {
+            return Collections.emptyList();
+        }
+
+        List<StatInstance>[][] byStat = byPartType[partTypeIndex];
+        int statIndex = ((ItemStat) stat).getIndex();
+        if (statIndex >= byStat.length || byStat[statIndex] == null) {
+            return Collections.emptyList();
+        }
+
+        // Null for gear types created after the table was built
+        List<StatInstance>[] byGearType = byStat[statIndex];
+        int gearTypeIndex = key.getGearType().getIndex();
+        return gearTypeIndex < byGearType.length ? byGearType[gearTypeIndex] : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    static MaterialStatTable build(Collection<IMaterial> allMaterials) {
+        List<AbstractMaterial> included = new ArrayList<>();
+        for (IMaterial material : allMaterials) {
+            if (material instanceof AbstractMaterial && hasStaticParents((AbstractMaterial) material)) {
+                included.add((AbstractMaterial) material);
+            }
+        }
+
+        AbstractMaterial[] materials = included.toArray(new AbstractMaterial[0]);
+        List<StatInstance>[][][][] entries = new List[materials.length][][][];
+        Collection<GearType> gearTypes = GearType.getValues();
+        int partTypeCount = PartType.getIndexCount();
+        int statCount = ItemStats.getStatCount();
+        int gearTypeCount = GearType.getIndexCount();
+        // Many entries resolve to the same modifiers, so the lists are shared
+        Map<List<Object>, List<StatInstance>> lists = new HashMap<>();
+
+        for (int i = 0; i < materials.length; ++i) {
+            AbstractMaterial material = materials[i];
+            List<StatInstance>[][][] byPartType = new List[partTypeCount][][];
+
+            for (AbstractMaterial m : getMaterialAndParents(material)) {
+                for (Map.Entry<PartType, StatModifierMap> entry : m.stats.entrySet()) {
+                    PartType partType = entry.getKey();
+                    if (partType.getIndex() >= partTypeCount) continue;
+
+                    for (ItemStat stat : entry.getValue().getStats()) {
+                        if (byPartType[partType.getIndex()] == null) {
+                            byPartType[partType.getIndex()] = new List[statCount];
+                        }
+                        List<StatInstance>[][] byStat = byPartType[partType.getIndex()];
+                        if (stat.getIndex() >= statCount || byStat[stat.getIndex()] != null) continue;
+
+                        List<StatInstance>[] byGearType = new List[gearTypeCount];
+                        for (GearType gearType : gearTypes) {
+                            byGearType[gearType.getIndex()] = resolve(material, partType, StatGearKey.of(stat, gearType), lists);
+                        }
+                        byStat[stat.getIndex()] = byGearType;
+                    }
+                }
+            }
+
+            material.statTableIndex = i;
+            entries[i] = byPartType;
+        }
+
+        SilentGear.LOGGER.debug(MaterialManager.MARKER, "Built stat table for {} of {} materials", materials.length, allMaterials.size());
+        return new MaterialStatTable(materials, entries);
+    }
+
+    private static List<StatInstance> resolve(AbstractMaterial material, PartType partType, StatGearKey key, Map<List<Object>, List<StatInstance>> lists) {
+        // Same as AbstractMaterial#getStatModifiers: first material in the chain with modifiers wins
+        for (AbstractMaterial m : getMaterialAndParents(material)) {
+            StatModifierMap map = m.stats.getOrDefault(partType, StatModifierMap.EMPTY_STAT_MAP);
+            Collection<StatInstance> mods = map.get(key);
+            if (!mods.isEmpty()) {
+                return lists.computeIfAbsent(Arrays.asList(m, partType, map.getMostSpecificKey(key)), k -> ImmutableList.copyOf(mods));
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    private static List<AbstractMaterial> getMaterialAndParents(AbstractMaterial material) {
+        List<AbstractMaterial> list = new ArrayList<>();
+        IMaterial m = material;
+        while (m != null && !list.contains(m)) {
+            list.add((AbstractMaterial) m);
+            m = m.getParent();
+        }
+        return list;
+    }
+
+    private static boolean hasStaticParents(AbstractMaterial material) {
+        Set<ResourceLocation> visited = new HashSet<>();
+        IMaterial parent = material.getParent();
+        while (parent != null) {
+            if (!visited.add(parent.getId()) || !(parent instanceof AbstractMaterial) || !hasStaticStatModifiers(parent.getClass())) {
+                return false;
+            }
+            parent = parent.getParent();
+        }
+        return true;
+    }
+
+    private static boolean hasStaticStatModifiers(Class<?> clazz) {
+        synchronized (STATIC_STATS_CLASSES) {
+            return STATIC_STATS_CLASSES.computeIfAbsent(clazz, c -> {
+                try {
+                    return c.getMethod("getStatModifiers", IMaterialInstance.class, PartType.class, StatGearKey.class, ItemStack.class)
+                            .getDeclaringClass() == AbstractMaterial.class;
+                } catch (NoSuchMethodException ex) {
+                    return false;
+                }
+            });
+        }
+    }
+}
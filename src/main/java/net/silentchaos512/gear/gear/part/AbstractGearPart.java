@@ -25,6 +25,7 @@ import net.silentchaos512.gear.api.stats.*;
 import net.silentchaos512.gear.api.traits.TraitInstance;
 import net.silentchaos512.gear.api.util.PartGearKey;
 import net.silentchaos512.gear.api.util.StatGearKey;
+import net.silentchaos512.gear.util.EventHelper;
 
 import javax.annotation.Nullable;
 import java.util.*;
@@ -46,6 +47,8 @@ public abstract class AbstractGearPart implements IGearPart {
     boolean visible = true;
     int tier = -1;
     List<String> blacklistedGearTypes = new ArrayList<>();
+    // blacklistedGearTypes parsed at load, so checks need no string matching
+    List<GearType> parsedBlacklist = Collections.emptyList();
 
     // Stats and Traits
     protected StatModifierMap stats = new StatModifierMap();
@@ -86,6 +89,10 @@ public abstract class AbstractGearPart implements IGearPart {
     @Override
     public Collection<StatInstance> getStatModifiers(IPartData part, PartType partType, StatGearKey key, ItemStack gear) {
         List<StatInstance> mods = new ArrayList<>(this.stats.get(key));
+        if (!EventHelper.hasListeners(GetStatModifierEvent.class)) {
+            return mods;
+        }
+
         GetStatModifierEvent event = new GetStatModifierEvent((PartData) part, (ItemStat) key.getStat(), mods);
         MinecraftForge.EVENT_BUS.post(event);
         return event.getModifiers();
@@ -99,7 +106,7 @@ public abstract class AbstractGearPart implements IGearPart {
     @Override
     public boolean isCraftingAllowed(IPartData part, PartType partType, GearType gearType, @Nullable Container inventory) {
         if (!gearType.matches(GearType.ALL)) return true;
-        for (String blacklistedGearType : blacklistedGearTypes) {
+        for (GearType blacklistedGearType : parsedBlacklist) {
             if (gearType.matches(blacklistedGearType)) {
                 return false;
             }
@@ -230,6 +237,7 @@ public abstract class AbstractGearPart implements IGearPart {
                 if (blacklist != null) {
                     part.blacklistedGearTypes.clear();
                     blacklist.forEach(e -> part.blacklistedGearTypes.add(e.getAsString()));
+                    part.parsedBlacklist = GearType.forMatching(part.blacklistedGearTypes);
                 }
             }
 
@@ -275,6 +283,7 @@ public abstract class AbstractGearPart implements IGearPart {
             for (int i = 0; i < blacklistSize; ++i) {
                 part.blacklistedGearTypes.add(buffer.readUtf());
             }
+            part.parsedBlacklist = GearType.forMatching(part.blacklistedGearTypes);
 
             // Stats and traits
             part.stats = StatModifierMap.read(buffer);
@@ -1,7 +1,11 @@
 package net.silentchaos512.gear.gear.part;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
+import net.minecraft.nbt.ListTag;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.util.GsonHelper;
@@ -26,7 +30,10 @@ import net.silentchaos512.gear.api.util.StatGearKey;
 import net.silentchaos512.gear.client.util.ColorUtils;
 import net.silentchaos512.gear.gear.material.MaterialInstance;
 import net.silentchaos512.gear.gear.material.MaterialManager;
+import net.silentchaos512.gear.gear.trait.condition.TraitConditionContext;
 import net.silentchaos512.gear.item.CompoundPartItem;
+import net.silentchaos512.gear.util.DataEpoch;
+import net.silentchaos512.gear.util.EventHelper;
 import net.silentchaos512.gear.util.GearHelper;
 import net.silentchaos512.gear.util.SynergyUtils;
 import net.silentchaos512.gear.util.TraitHelper;
@@ -37,10 +44,22 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class CompoundPart extends AbstractGearPart {
+    private static final Cache<StatModifiersKey, List<StatInstance>> STAT_MODIFIERS_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(20000)
+            .build();
+    private static final Cache<TraitsKey, List<TraitInstance>> TRAITS_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(20000)
+            .build();
+
+    static {
+        DataEpoch.register(CompoundPart::clearCache);
+    }
+
     private GearType gearType = GearType.ALL;
     private PartType partType;
 
@@ -125,6 +144,31 @@ public class CompoundPart extends AbstractGearPart {
 
     @Override
     public Collection<StatInstance> getStatModifiers(IPartData part, PartType partType, StatGearKey key, ItemStack gear) {
+        // Parts with the same materials always have the same modifiers, so they share a cache entry
+        ListTag materialsNbt = CompoundPartItem.getMaterialsNbt(part.getItem());
+        CompositionKey composition = new CompositionKey(getId(), partType, gear.isEmpty(), materialsNbt);
+        List<StatInstance> cached = STAT_MODIFIERS_CACHE.getIfPresent(new StatModifiersKey(composition, key));
+        if (cached != null) {
+            return cached;
+        }
+
+        CompositionKey compositionCopy = composition.copy();
+        List<StatInstance> ret = ImmutableList.copyOf(computeStatModifiers(part, partType, key, gear, compositionCopy));
+        STAT_MODIFIERS_CACHE.put(new StatModifiersKey(compositionCopy, key), ret);
+        return ret;
+    }
+
+    /**
+     * Clears cached stat modifiers, traits and synergy of all compound parts. Runs automatically
+     * whenever the {@link DataEpoch} advances.
+     */
+    public static void clearCache() {
+        STAT_MODIFIERS_CACHE.invalidateAll();
+        TRAITS_CACHE.invalidateAll();
+        SynergyUtils.clearCache();
+    }
+
+    private Collection<StatInstance> computeStatModifiers(IPartData part, PartType partType, StatGearKey key, ItemStack gear, CompositionKey composition) {
         // Get the materials and all the stat modifiers they provide for this stat
         List<IMaterialInstance> materials = getMaterials(part);
         List<StatInstance> statMods = materials.stream()
@@ -139,12 +183,15 @@ public class CompoundPart extends AbstractGearPart {
             return statMods;
         }
 
-        GetStatModifierEvent event = new GetStatModifierEvent((PartData) part, (ItemStat) key.getStat(), statMods);
-        MinecraftForge.EVENT_BUS.post(event);
+        if (EventHelper.hasListeners(GetStatModifierEvent.class)) {
+            GetStatModifierEvent event = new GetStatModifierEvent((PartData) part, (ItemStat) key.getStat(), statMods);
+            MinecraftForge.EVENT_BUS.post(event);
+            statMods = event.getModifiers();
+        }
 
         // Average together all modifiers of the same op. This makes things like rods with varying
         // numbers of materials more "sane".
-        List<StatInstance> ret = new ArrayList<>(event.getModifiers());
+        List<StatInstance> ret = new ArrayList<>(statMods);
         for (StatInstance.Operation op : StatInstance.Operation.values()) {
             Collection<StatInstance> modsForOp = ret.stream().filter(s -> s.getOp() == op).collect(Collectors.toList());
             if (modsForOp.size() > 1) {
@@ -156,7 +203,7 @@ public class CompoundPart extends AbstractGearPart {
 
         // Synergy
         if (key.getStat().doesSynergyApply()) {
-            final float synergy = SynergyUtils.getSynergy(this.partType, materials, getTraits(part, PartGearKey.of(gearType, partType), gear));
+            final float synergy = SynergyUtils.getSynergy(composition, this.partType, materials, () -> getTraits(part, PartGearKey.of(gearType, partType), gear));
             if (!MathUtils.floatsEqual(synergy, 1.0f)) {
                 final float multi = synergy - 1f;
                 for (int i = 0; i < ret.size(); ++i) {
@@ -187,15 +234,25 @@ public class CompoundPart extends AbstractGearPart {
 
     @Override
     public Collection<TraitInstance> getTraits(IPartData part, PartGearKey partKey, ItemStack gear) {
+        // Like stat modifiers, traits only depend on the part's composition and the part/gear key
+        ListTag materialsNbt = CompoundPartItem.getMaterialsNbt(part.getItem());
+        CompositionKey composition = new CompositionKey(getId(), partKey.getPartType(), gear.isEmpty(), materialsNbt);
+        List<TraitInstance> cached = TRAITS_CACHE.getIfPresent(new TraitsKey(composition, partKey));
+        if (cached != null) {
+            return new ArrayList<>(cached);
+        }
+
         List<TraitInstance> ret = new ArrayList<>(super.getTraits(part, partKey, gear));
         List<IMaterialInstance> materials = getMaterials(part);
+        TraitConditionContext context = new TraitConditionContext(partKey, gear, materials);
 
         for (TraitInstance inst : TraitHelper.getTraits(materials, partKey, gear)) {
-            if (inst.conditionsMatch(partKey, gear, materials)) {
+            if (inst.conditionsMatch(context)) {
                 ret.add(inst);
             }
         }
 
+        TRAITS_CACHE.put(new TraitsKey(composition.copy(), partKey), ImmutableList.copyOf(ret));
         return ret;
     }
 
@@ -281,6 +338,103 @@ public class CompoundPart extends AbstractGearPart {
                 '}';
     }
 
+    /**
+     * Identifies a compound part by its composition. The gear item only matters to the part's
+     * modifiers and synergy through trait conditions, which only check whether it is empty.
+     */
+    private static final class CompositionKey {
+        private final ResourceLocation partId;
+        private final PartType partType;
+        private final boolean gearEmpty;
+        private final ListTag materials;
+        private final int hash;
+
+        private CompositionKey(ResourceLocation partId, PartType partType, boolean gearEmpty, ListTag materials) {
+            this.partId = partId;
+            this.partType = partType;
+            this.gearEmpty = gearEmpty;
+            this.materials = materials;
+            this.hash = Objects.hash(partId, partType, gearEmpty, materials);
+        }
+
+        private CompositionKey copy() {
+            // The materials list belongs to the part item, which could be modified later
+            return new CompositionKey(partId, partType, gearEmpty, materials.copy());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            CompositionKey that = (CompositionKey) o;
+            return hash == that.hash
+                    && gearEmpty == that.gearEmpty
+                    && partType == that.partType
+                    && partId.equals(that.partId)
+                    && materials.equals(that.materials);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return "CompositionKey{" +
+                    "partId=" + partId +
+                    ", gearEmpty=" + gearEmpty +
+                    ", materials=" + materials +
+                    '}';
+        }
+    }
+
+    private static final class StatModifiersKey {
+        private final CompositionKey composition;
+        private final StatGearKey statKey;
+
+        private StatModifiersKey(CompositionKey composition, StatGearKey statKey) {
+            this.composition = composition;
+            this.statKey = statKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            StatModifiersKey that = (StatModifiersKey) o;
+            return statKey.equals(that.statKey) && composition.equals(that.composition);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * composition.hashCode() + statKey.hashCode();
+        }
+    }
+
+    private static final class TraitsKey {
+        private final CompositionKey composition;
+        private final PartGearKey partKey;
+
+        private TraitsKey(CompositionKey composition, PartGearKey partKey) {
+            this.composition = composition;
+            this.partKey = partKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            TraitsKey that = (TraitsKey) o;
+            return partKey.equals(that.partKey) && composition.equals(that.composition);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * composition.hashCode() + partKey.hashCode();
+        }
+    }
+
     public static class Serializer extends AbstractGearPart.Serializer<CompoundPart> {
         Serializer(ResourceLocation serializerId, Function<ResourceLocation, CompoundPart> function) {
             super(serializerId, function);
@@ -2,30 +2,32 @@ package net.silentchaos512.gear.gear.part;
 
 import net.minecraft.world.inventory.CraftingContainer;
 import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.item.crafting.Ingredient;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.network.chat.Component;
 import net.silentchaos512.gear.SilentGear;
 import net.silentchaos512.gear.api.item.GearType;
-import net.silentchaos512.gear.api.material.IMaterial;
 import net.silentchaos512.gear.api.part.IGearPart;
 import net.silentchaos512.gear.api.part.IPartData;
 import net.silentchaos512.gear.api.part.PartType;
 import net.silentchaos512.gear.api.stats.StatInstance;
 import net.silentchaos512.gear.api.util.StatGearKey;
 import net.silentchaos512.gear.gear.material.MaterialInstance;
-import net.silentchaos512.gear.gear.material.MaterialManager;
-import net.silentchaos512.gear.item.CompoundPartItem;
+import net.silentchaos512.gear.util.DataEpoch;
 import net.silentchaos512.gear.util.DataResource;
 import net.silentchaos512.lib.util.InventoryUtils;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class PartData implements IPartData {
-    private static final Map<ResourceLocation, PartData> CACHE_UNGRADED_PARTS = new HashMap<>();
+    private static final Map<ResourceLocation, PartData> CACHE_UNGRADED_PARTS = new ConcurrentHashMap<>();
+
+    static {
+        DataEpoch.register(CACHE_UNGRADED_PARTS::clear);
+    }
     public static final String NBT_ID = "ID";
 
     private final IGearPart part;
@@ -45,8 +47,10 @@ public final class PartData implements IPartData {
 
     public static PartData of(IGearPart part) {
         ResourceLocation name = part.getId();
-        if (CACHE_UNGRADED_PARTS.containsKey(name)) {
-            return CACHE_UNGRADED_PARTS.get(name);
+        PartData cached = CACHE_UNGRADED_PARTS.get(name);
+        // Could be a part from before a reload
+        if (cached != null && cached.part == part) {
+            return cached;
         }
 
         PartData inst = new PartData(part);
@@ -84,24 +88,11 @@ public final class PartData implements IPartData {
 
     @Nullable
     private static PartData fromMaterialSubstitute(ItemStack stack) {
-        for (IMaterial material : MaterialManager.getValues()) {
-            if (material.hasPartSubstitutes()) {
-                for (PartType partType : PartType.getValues()) {
-                    Optional<Ingredient> ingredient = material.getPartSubstitute(partType);
-
-                    if (ingredient.isPresent() && ingredient.get().test(stack)) {
-                        Optional<? extends CompoundPartItem> item = partType.getCompoundPartItem(GearType.PART);
-
-                        if (item.isPresent()) {
-                            ItemStack result = item.get().create(MaterialInstance.of(material));
-                            return PartData.from(result, false);
-                        }
-                    }
-                }
-            }
-        }
+        PartManager.PartSubstitute substitute = PartManager.findSubstitute(stack);
+        if (substitute == null) return null;
 
-        return null;
+        ItemStack result = substitute.item.create(MaterialInstance.of(substitute.material));
+        return PartData.from(result, false);
     }
 
     @Nullable
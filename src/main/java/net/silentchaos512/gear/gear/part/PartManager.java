@@ -1,34 +1,35 @@
 package net.silentchaos512.gear.gear.part;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
 import net.minecraft.ChatFormatting;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.TextComponent;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
-import net.minecraft.server.packs.resources.Resource;
 import net.minecraft.server.packs.resources.ResourceManager;
 import net.minecraft.server.packs.resources.ResourceManagerReloadListener;
-import net.minecraft.util.GsonHelper;
 import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.Ingredient;
 import net.minecraftforge.common.crafting.CraftingHelper;
 import net.minecraftforge.network.NetworkEvent;
 import net.silentchaos512.gear.SilentGear;
+import net.silentchaos512.gear.api.item.GearType;
+import net.silentchaos512.gear.api.material.IMaterial;
 import net.silentchaos512.gear.api.part.IGearPart;
 import net.silentchaos512.gear.api.part.PartType;
+import net.silentchaos512.gear.crafting.ingredient.IngredientIndex;
+import net.silentchaos512.gear.gear.material.MaterialManager;
+import net.silentchaos512.gear.item.CompoundPartItem;
 import net.silentchaos512.gear.network.SyncGearPartsPacket;
-import org.apache.commons.io.IOUtils;
+import net.silentchaos512.gear.util.DataEpoch;
+import net.silentchaos512.gear.util.JsonResourceLoader;
+import net.silentchaos512.gear.util.RegistrySnapshot;
 import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.MarkerManager;
 
 import javax.annotation.Nullable;
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -41,9 +42,18 @@ public final class PartManager implements ResourceManagerReloadListener {
 
     private static final String DATA_PATH = "silentgear_parts";
     private static final String DATA_PATH_OLD = "silentgear/parts";
-    private static final Map<ResourceLocation, IGearPart> MAP = Collections.synchronizedMap(new LinkedHashMap<>());
+    // Guards changes to the snapshot, error list and item indexes. Reading the snapshot needs no lock.
+    private static final Object LOCK = new Object();
+    private static volatile RegistrySnapshot<IGearPart> snapshot = RegistrySnapshot.empty();
     private static int highestMainPartTier = 0;
     private static final Collection<String> ERROR_LIST = new ArrayList<>();
+    // Built when first needed, since tags may not be bound yet when parts are loaded
+    @Nullable private static volatile IngredientIndex<IGearPart> itemIndex;
+    @Nullable private static volatile IngredientIndex<PartSubstitute> substituteIndex;
+
+    static {
+        DataEpoch.register(PartManager::invalidateItemIndex);
+    }
 
     private PartManager() {}
 
@@ -57,46 +67,53 @@ public final class PartManager implements ResourceManagerReloadListener {
         Collection<ResourceLocation> resources = getAllResources(resourceManager);
         if (resources.isEmpty()) return;
 
-        synchronized (MAP) {
-            MAP.clear();
-            ERROR_LIST.clear();
-            SilentGear.LOGGER.info(MARKER, "Reloading part files");
-
-            for (ResourceLocation id : resources) {
-                String path = id.getPath().substring(DATA_PATH.length() + 1, id.getPath().length() - ".json".length());
-                ResourceLocation name = new ResourceLocation(id.getNamespace(), path);
-
-                String packName = "ERROR";
-                try (Resource iresource = resourceManager.getResource(id)) {
-                    packName = iresource.getSourceName();
-                    if (SilentGear.LOGGER.isTraceEnabled()) {
-                        SilentGear.LOGGER.trace(MARKER, "Found likely part file: {}, trying to read as part {}", id, name);
-                    }
-
-                    JsonObject json = GsonHelper.fromJson(gson, IOUtils.toString(iresource.getInputStream(), StandardCharsets.UTF_8), JsonObject.class);
-                    if (json == null) {
-                        SilentGear.LOGGER.error(MARKER, "Could not load part {} as it's null or empty", name);
-                    } else if (!CraftingHelper.processConditions(json, "conditions")) {
-                        SilentGear.LOGGER.info("Skipping loading gear part {} as it's conditions were not met", name);
-                    } else {
-                        IGearPart part = PartSerializers.deserialize(name, json);
-                        if (part instanceof AbstractGearPart) {
-                            ((AbstractGearPart) part).packName = iresource.getSourceName();
-                        }
-                        addPart(part);
-                        highestMainPartTier = Math.max(highestMainPartTier, part.getTier());
-                    }
-                } catch (IllegalArgumentException | JsonParseException ex) {
-                    SilentGear.LOGGER.error(MARKER, "Parsing error loading gear part {}", name, ex);
-                    ERROR_LIST.add(String.format("%s (%s)", name, packName));
-                } catch (IOException ex) {
-                    SilentGear.LOGGER.error(MARKER, "Could not read gear part {}", name, ex);
-                    ERROR_LIST.add(String.format("%s (%s)", name, packName));
+        SilentGear.LOGGER.info(MARKER, "Reloading part files");
+        List<JsonResourceLoader.Entry<IGearPart>> entries = JsonResourceLoader.load(resourceManager, resources, DATA_PATH, gson, (name, packName, json) -> {
+            if (!CraftingHelper.processConditions(json, "conditions")) {
+                return null;
+            }
+            IGearPart part = PartSerializers.deserialize(name, json);
+            if (part instanceof AbstractGearPart) {
+                ((AbstractGearPart) part).packName = packName;
+            }
+            return part;
+        });
+
+        Map<ResourceLocation, IGearPart> loaded = new LinkedHashMap<>();
+        Collection<String> errors = new ArrayList<>();
+
+        for (JsonResourceLoader.Entry<IGearPart> entry : entries) {
+            ResourceLocation name = entry.getName();
+            IGearPart part = entry.getValue();
+            if (SilentGear.LOGGER.isTraceEnabled()) {
+                SilentGear.LOGGER.trace(MARKER, "Found likely part file: {}, trying to read as part {}", entry.getId(), name);
+            }
+
+            if (entry.getError() != null) {
+                if (entry.isReadError()) {
+                    SilentGear.LOGGER.error(MARKER, "Could not read gear part {}", name, entry.getError());
+                } else {
+                    SilentGear.LOGGER.error(MARKER, "Parsing error loading gear part {}", name, entry.getError());
                 }
+                errors.add(String.format("%s (%s)", name, entry.getPackName()));
+            } else if (entry.getJson() == null) {
+                SilentGear.LOGGER.error(MARKER, "Could not load part {} as it's null or empty", name);
+            } else if (part == null) {
+                SilentGear.LOGGER.info("Skipping loading gear part {} as it's conditions were not met", name);
+            } else {
+                addPart(loaded, part);
+                highestMainPartTier = Math.max(highestMainPartTier, part.getTier());
             }
+        }
 
-            SilentGear.LOGGER.info(MARKER, "Registered {} parts", MAP.size());
+        synchronized (LOCK) {
+            ERROR_LIST.clear();
+            ERROR_LIST.addAll(errors);
+            snapshot = RegistrySnapshot.of(loaded);
+            SilentGear.LOGGER.info(MARKER, "Registered {} parts", loaded.size());
         }
+
+        DataEpoch.advance();
     }
 
     private static Collection<ResourceLocation> getAllResources(ResourceManager resourceManager) {
@@ -106,18 +123,28 @@ public final class PartManager implements ResourceManagerReloadListener {
         return list;
     }
 
-    private static void addPart(IGearPart part) {
-        if (MAP.containsKey(part.getId())) {
+    private static void addPart(Map<ResourceLocation, IGearPart> map, IGearPart part) {
+        if (map.containsKey(part.getId())) {
             throw new IllegalStateException("Duplicate gear part " + part.getId());
         } else {
-            MAP.put(part.getId(), part);
+            map.put(part.getId(), part);
         }
     }
 
+    /**
+     * Gets the currently loaded parts. This is replaced on every reload and sync.
+     *
+     * @return The current snapshot
+     */
+    public static RegistrySnapshot<IGearPart> getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return An immutable list of all parts, in load order
+     */
     public static Collection<IGearPart> getValues() {
-        synchronized (MAP) {
-            return MAP.values();
-        }
+        return snapshot.getValues();
     }
 
     public static List<IGearPart> getPartsOfType(PartType type) {
@@ -138,9 +165,7 @@ public final class PartManager implements ResourceManagerReloadListener {
 
     @Nullable
     public static IGearPart get(ResourceLocation id) {
-        synchronized (MAP) {
-            return MAP.get(id);
-        }
+        return snapshot.get(id);
     }
 
     @Nullable
@@ -153,26 +178,76 @@ public final class PartManager implements ResourceManagerReloadListener {
     public static IGearPart from(ItemStack stack) {
         if (stack.isEmpty()) return null;
 
-        // We can't reliable keep an IItemProvider -> IGearPart map anymore
-        for (IGearPart part : getValues()) {
-            if (part.getIngredient().test(stack)) {
-                return part;
+        IngredientIndex<IGearPart> index = itemIndex;
+        if (index == null) {
+            synchronized (LOCK) {
+                index = itemIndex;
+                if (index == null) {
+                    index = IngredientIndex.build(snapshot.getValues(), IGearPart::getIngredient);
+                    itemIndex = index;
+                }
             }
         }
+        return index.find(stack);
+    }
 
-        return null;
+    /**
+     * Finds the first material with a part substitute which matches the item. Materials are checked
+     * in order, then part types.
+     *
+     * @param stack The item
+     * @return The substitute, or null if the item is not a part substitute
+     */
+    @Nullable
+    static PartSubstitute findSubstitute(ItemStack stack) {
+        if (stack.isEmpty()) return null;
+
+        IngredientIndex<PartSubstitute> index = substituteIndex;
+        if (index == null) {
+            synchronized (LOCK) {
+                index = substituteIndex;
+                if (index == null) {
+                    index = IngredientIndex.build(getPartSubstitutes(), sub -> sub.ingredient);
+                    substituteIndex = index;
+                }
+            }
+        }
+        return index.find(stack);
+    }
+
+    private static List<PartSubstitute> getPartSubstitutes() {
+        List<PartSubstitute> list = new ArrayList<>();
+        for (IMaterial material : MaterialManager.getValues()) {
+            if (material.hasPartSubstitutes()) {
+                for (PartType partType : PartType.getValues()) {
+                    material.getPartSubstitute(partType).ifPresent(ingredient ->
+                            partType.getCompoundPartItem(GearType.PART).ifPresent(item ->
+                                    list.add(new PartSubstitute(material, item, ingredient))));
+                }
+            }
+        }
+        return list;
+    }
+
+    private static void invalidateItemIndex() {
+        synchronized (LOCK) {
+            itemIndex = null;
+            substituteIndex = null;
+        }
     }
 
     public static void handlePartSyncPacket(SyncGearPartsPacket packet, Supplier<NetworkEvent.Context> context) {
-        synchronized (MAP) {
-            Map<ResourceLocation, IGearPart> oldParts = ImmutableMap.copyOf(MAP);
-            MAP.clear();
+        synchronized (LOCK) {
+            RegistrySnapshot<IGearPart> oldParts = snapshot;
+            Map<ResourceLocation, IGearPart> parts = new LinkedHashMap<>();
             for (IGearPart part : packet.getParts()) {
                 part.retainData(oldParts.get(part.getId()));
-                MAP.put(part.getId(), part);
+                parts.put(part.getId(), part);
             }
-            SilentGear.LOGGER.info("Read {} parts from server", MAP.size());
+            snapshot = RegistrySnapshot.of(parts);
+            SilentGear.LOGGER.info("Read {} parts from server", parts.size());
         }
+        DataEpoch.advance();
         context.get().setPacketHandled(true);
     }
 
@@ -187,4 +262,16 @@ public final class PartManager implements ResourceManagerReloadListener {
         }
         return ImmutableList.of();
     }
+
+    static final class PartSubstitute {
+        final IMaterial material;
+        final CompoundPartItem item;
+        final Ingredient ingredient;
+
+        private PartSubstitute(IMaterial material, CompoundPartItem item, Ingredient ingredient) {
+            this.material = material;
+            this.item = item;
+            this.ingredient = ingredient;
+        }
+    }
 }
@@ -44,8 +44,13 @@ public class SelfRepairTrait extends SimpleTrait {
         }
     }
 
+    @Override
+    public int getUpdateInterval() {
+        return 20;
+    }
+
     private boolean shouldActivate(TraitActionContext context) {
-        if (context.getPlayer() != null && context.getPlayer().tickCount % 20 == 0) {
+        if (context.getPlayer() != null) {
             return MathUtils.tryPercentage(activationChance * context.getTraitLevel());
         }
         return false;
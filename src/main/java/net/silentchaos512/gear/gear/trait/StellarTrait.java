@@ -26,6 +26,7 @@ public class StellarTrait extends WielderEffectTrait {
     @Override
     public void onUpdate(TraitActionContext context, boolean isEquipped) {
         Player player = context.getPlayer();
+        // Effects are refreshed every update, but repairs are only attempted every second update
         if (player != null && player.tickCount % 20 == 0) {
             float chance = Const.Traits.STELLAR_REPAIR_CHANCE * context.getTraitLevel();
             if (MathUtils.tryPercentage(chance)) {
@@ -0,0 +1,65 @@
+package net.silentchaos512.gear.gear.trait;
+
+import com.google.common.collect.Multimap;
+import net.silentchaos512.gear.api.stats.ItemStat;
+import net.silentchaos512.gear.api.traits.ITrait;
+import net.silentchaos512.gear.api.traits.TraitActionContext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Trait methods which are called often enough that traits which do nothing in them are worth
+ * skipping. A trait implements a hook if it overrides the method from {@link SimpleTrait}. Traits
+ * which do not extend {@link SimpleTrait} are assumed to implement every hook.
+ */
+public enum TraitHook {
+    UPDATE("onUpdate", TraitActionContext.class, boolean.class),
+    GET_STAT("onGetStat", TraitActionContext.class, ItemStat.class, float.class, float.class),
+    GET_ATTRIBUTE_MODIFIERS("onGetAttributeModifiers", TraitActionContext.class, Multimap.class, String.class);
+
+    private static final TraitHook[] VALUES = values();
+    private static final Map<Class<?>, Integer> MASKS = new HashMap<>();
+
+    private final String methodName;
+    private final Class<?>[] parameterTypes;
+
+    TraitHook(String methodName, Class<?>... parameterTypes) {
+        this.methodName = methodName;
+        this.parameterTypes = parameterTypes;
+    }
+
+    public int getMask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Gets a bit mask of the hooks the trait implements, see {@link #getMask()}.
+     *
+     * @param trait The trait
+     * @return The hook mask
+     */
+    static int getMask(ITrait trait) {
+        synchronized (MASKS) {
+            return MASKS.computeIfAbsent(trait.getClass(), TraitHook::computeMask);
+        }
+    }
+
+    private static int computeMask(Class<?> clazz) {
+        int mask = 0;
+        for (TraitHook hook : VALUES) {
+            if (hook.isImplementedBy(clazz)) {
+                mask |= hook.getMask();
+            }
+        }
+        return mask;
+    }
+
+    private boolean isImplementedBy(Class<?> clazz) {
+        try {
+            return clazz.getMethod(this.methodName, this.parameterTypes).getDeclaringClass() != SimpleTrait.class;
+        } catch (NoSuchMethodException ex) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package net.silentchaos512.gear.gear.trait;
+
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.resources.ResourceLocation;
+import net.silentchaos512.gear.api.traits.ITrait;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Dense indices for all loaded traits, assigned by {@link TraitManager} on every reload or sync,
+ * along with the {@link TraitHook}s each trait implements, its update interval and the traits it
+ * cancels with.
+ * A new index replaces the old one each time, so anything built against an index should check
+ * that it is still {@link TraitManager#getTraitIndex() current}.
+ */
+public final class TraitIndex {
+    static final TraitIndex EMPTY = new TraitIndex(new ITrait[0]);
+    private static final int[] NO_PARTNERS = new int[0];
+
+    private final ITrait[] traits;
+    private final Object2IntMap<ResourceLocation> indices;
+    private final int[] hookMasks;
+    private final int[] updateIntervals;
+    // Indices of the traits each trait will cancel with, see ITrait#willCancelWith
+    private final int[][] cancelPartners;
+
+    private TraitIndex(ITrait[] traits) {
+        this.traits = traits;
+        this.indices = new Object2IntOpenHashMap<>(traits.length);
+        this.indices.defaultReturnValue(-1);
+        this.hookMasks = new int[traits.length];
+        this.updateIntervals = new int[traits.length];
+        this.cancelPartners = new int[traits.length][];
+
+        for (int i = 0; i < traits.length; ++i) {
+            this.indices.put(traits[i].getId(), i);
+            this.hookMasks[i] = TraitHook.getMask(traits[i]);
+            this.updateIntervals[i] = Math.max(1, traits[i].getUpdateInterval());
+            this.cancelPartners[i] = findCancelPartners(traits, i);
+        }
+    }
+
+    private static int[] findCancelPartners(ITrait[] traits, int index) {
+        int[] partners = new int[traits.length];
+        int count = 0;
+        for (int i = 0; i < traits.length; ++i) {
+            if (i != index && traits[index].willCancelWith(traits[i])) {
+                partners[count++] = i;
+            }
+        }
+        return count > 0 ? Arrays.copyOf(partners, count) : NO_PARTNERS;
+    }
+
+    static TraitIndex of(Collection<ITrait> traits) {
+        return new TraitIndex(traits.toArray(new ITrait[0]));
+    }
+
+    public int size() {
+        return this.traits.length;
+    }
+
+    /**
+     * Gets the index of the trait with the given ID.
+     *
+     * @param traitId The trait ID
+     * @return The trait index, or -1 if the trait is not loaded
+     */
+    public int indexOf(ResourceLocation traitId) {
+        return this.indices.getInt(traitId);
+    }
+
+    @Nullable
+    public ITrait byIndex(int index) {
+        return index >= 0 && index < this.traits.length ? this.traits[index] : null;
+    }
+
+    /**
+     * Checks if the trait at the index implements the hook.
+     *
+     * @param index The trait index
+     * @param hook  The hook
+     * @return True if the trait overrides the hook's method
+     */
+    public boolean hasHook(int index, TraitHook hook) {
+        return (this.hookMasks[index] & hook.getMask()) != 0;
+    }
+
+    /**
+     * Gets the update interval of the trait at the index, see {@link
+     * ITrait#getUpdateInterval()}.
+     *
+     * @param index The trait index
+     * @return The update interval in ticks, at least one
+     */
+    public int getUpdateInterval(int index) {
+        return this.updateIntervals[index];
+    }
+
+    /**
+     * Cancels traits which cancel with each other, see {@link ITrait#getCanceledLevel(int, ITrait,
+     * int)}. Each trait is checked against the traits after it which it will cancel with, in
+     * order, so the result is the same as checking every pair. Only pairs which can cancel are
+     * visited.
+     *
+     * @param indices The trait indices, with no duplicates
+     * @param levels  The trait levels, in the same order. Modified in place. Canceled traits are
+     *                set to -1.
+     */
+    public void cancelTraits(int[] indices, int[] levels) {
+        Int2IntMap positions = null;
+
+        for (int i = 0; i < indices.length; ++i) {
+            int[] partners = this.cancelPartners[indices[i]];
+            if (levels[i] < 0 || partners.length == 0) continue;
+
+            if (positions == null) {
+                positions = new Int2IntOpenHashMap(indices.length);
+                positions.defaultReturnValue(-1);
+                for (int j = 0; j < indices.length; ++j) {
+                    positions.put(indices[j], j);
+                }
+            }
+
+            // Positions of partners after this trait, in order
+            int[] later = new int[partners.length];
+            int count = 0;
+            for (int partner : partners) {
+                int position = positions.get(partner);
+                if (position > i) {
+                    later[count++] = position;
+                }
+            }
+            Arrays.sort(later, 0, count);
+
+            ITrait trait = this.traits[indices[i]];
+            for (int k = 0; k < count; ++k) {
+                int j = later[k];
+                if (levels[j] < 0) continue;
+
+                int cancelLevel = trait.getCanceledLevel(levels[i], this.traits[indices[j]], levels[j]);
+                if (cancelLevel > 0) {
+                    levels[i] = cancelLevel;
+                    levels[j] = -1;
+                } else if (cancelLevel < 0) {
+                    levels[j] = -cancelLevel;
+                    levels[i] = -1;
+                    break;
+                } else {
+                    levels[i] = -1;
+                    levels[j] = -1;
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -1,31 +1,26 @@
 package net.silentchaos512.gear.gear.trait;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
 import net.minecraft.ChatFormatting;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.TextComponent;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
-import net.minecraft.server.packs.resources.Resource;
 import net.minecraft.server.packs.resources.ResourceManager;
 import net.minecraft.server.packs.resources.ResourceManagerReloadListener;
-import net.minecraft.util.GsonHelper;
 import net.minecraftforge.network.NetworkEvent;
 import net.silentchaos512.gear.SilentGear;
 import net.silentchaos512.gear.api.traits.ITrait;
 import net.silentchaos512.gear.network.SyncTraitsPacket;
-import org.apache.commons.io.IOUtils;
+import net.silentchaos512.gear.util.DataEpoch;
+import net.silentchaos512.gear.util.JsonResourceLoader;
+import net.silentchaos512.gear.util.RegistrySnapshot;
 import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.MarkerManager;
 
 import javax.annotation.Nullable;
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -38,8 +33,11 @@ public final class TraitManager implements ResourceManagerReloadListener {
 
     private static final String DATA_PATH = "silentgear_traits";
     private static final String DATA_PATH_OLD = "silentgear/traits";
-    private static final Map<ResourceLocation, ITrait> MAP = Collections.synchronizedMap(new LinkedHashMap<>());
+    // Guards changes to the snapshot and error list. Reading the snapshot needs no lock.
+    private static final Object LOCK = new Object();
+    private static volatile RegistrySnapshot<ITrait> snapshot = RegistrySnapshot.empty();
     private static final Collection<ResourceLocation> ERROR_LIST = new ArrayList<>();
+    private static volatile TraitIndex traitIndex = TraitIndex.EMPTY;
 
     private TraitManager() {}
 
@@ -49,35 +47,44 @@ public final class TraitManager implements ResourceManagerReloadListener {
         Collection<ResourceLocation> resources = getAllResources(resourceManager);
         if (resources.isEmpty()) return;
 
-        MAP.clear();
-        ERROR_LIST.clear();
         SilentGear.LOGGER.info(MARKER, "Reloading trait files");
+        List<JsonResourceLoader.Entry<ITrait>> entries = JsonResourceLoader.load(resourceManager, resources, DATA_PATH, gson,
+                (name, packName, json) -> TraitSerializers.deserialize(name, json));
 
-        for (ResourceLocation id : resources) {
-            String path = id.getPath().substring(DATA_PATH.length() + 1, id.getPath().length() - ".json".length());
-            ResourceLocation name = new ResourceLocation(id.getNamespace(), path);
+        Map<ResourceLocation, ITrait> loaded = new LinkedHashMap<>();
+        Collection<ResourceLocation> errors = new ArrayList<>();
 
-            try (Resource iresource = resourceManager.getResource(id)) {
-                if (SilentGear.LOGGER.isTraceEnabled()) {
-                    SilentGear.LOGGER.trace(MARKER, "Found likely trait file: {}, trying to read as trait {}", id, name);
-                }
+        for (JsonResourceLoader.Entry<ITrait> entry : entries) {
+            ResourceLocation name = entry.getName();
+            ITrait trait = entry.getValue();
+            if (SilentGear.LOGGER.isTraceEnabled()) {
+                SilentGear.LOGGER.trace(MARKER, "Found likely trait file: {}, trying to read as trait {}", entry.getId(), name);
+            }
 
-                JsonObject json = GsonHelper.fromJson(gson, IOUtils.toString(iresource.getInputStream(), StandardCharsets.UTF_8), JsonObject.class);
-                if (json == null) {
-                    SilentGear.LOGGER.error(MARKER, "could not load trait {} as it's null or empty", name);
+            if (entry.getError() != null) {
+                if (entry.isReadError()) {
+                    SilentGear.LOGGER.error(MARKER, "Could not read trait {}", name, entry.getError());
                 } else {
-                    addTrait(TraitSerializers.deserialize(name, json));
+                    SilentGear.LOGGER.error(MARKER, "Parsing error loading trait {}", name, entry.getError());
                 }
-            } catch (IllegalArgumentException | JsonParseException ex) {
-                SilentGear.LOGGER.error(MARKER, "Parsing error loading trait {}", name, ex);
-                ERROR_LIST.add(name);
-            } catch (IOException ex) {
-                SilentGear.LOGGER.error(MARKER, "Could not read trait {}", name, ex);
-                ERROR_LIST.add(name);
+                errors.add(name);
+            } else if (trait == null) {
+                SilentGear.LOGGER.error(MARKER, "could not load trait {} as it's null or empty", name);
+            } else if (loaded.containsKey(trait.getId())) {
+                SilentGear.LOGGER.error(MARKER, "Parsing error loading trait {}", name, new IllegalArgumentException("Duplicate trait " + trait.getId()));
+                errors.add(name);
+            } else {
+                loaded.put(trait.getId(), trait);
             }
         }
 
-        SilentGear.LOGGER.info(MARKER, "Registered {} traits", MAP.size());
+        synchronized (LOCK) {
+            ERROR_LIST.clear();
+            ERROR_LIST.addAll(errors);
+            publish(loaded);
+            SilentGear.LOGGER.info(MARKER, "Registered {} traits", loaded.size());
+        }
+        DataEpoch.advance();
     }
 
     private static Collection<ResourceLocation> getAllResources(ResourceManager resourceManager) {
@@ -87,29 +94,39 @@ public final class TraitManager implements ResourceManagerReloadListener {
         return list;
     }
 
-    private static void addTrait(ITrait trait) {
-        if (MAP.containsKey(trait.getId())) {
-            throw new IllegalArgumentException("Duplicate trait " + trait.getId());
-        } else {
-            MAP.put(trait.getId(), trait);
-        }
+    // Must hold LOCK
+    private static void publish(Map<ResourceLocation, ITrait> traits) {
+        RegistrySnapshot<ITrait> newSnapshot = RegistrySnapshot.of(traits);
+        traitIndex = TraitIndex.of(newSnapshot.getValues());
+        snapshot = newSnapshot;
+    }
+
+    /**
+     * Gets the currently loaded traits. This is replaced on every reload and sync.
+     *
+     * @return The current snapshot
+     */
+    public static RegistrySnapshot<ITrait> getSnapshot() {
+        return snapshot;
     }
 
+    /**
+     * @return An immutable set of all trait IDs, in load order
+     */
     public static Collection<ResourceLocation> getKeys() {
-        synchronized (MAP) {
-            return MAP.keySet();
-        }
+        return snapshot.getKeys();
     }
 
+    /**
+     * @return An immutable list of all traits, in load order
+     */
     public static Collection<ITrait> getValues() {
-        synchronized (MAP) {
-            return MAP.values();
-        }
+        return snapshot.getValues();
     }
 
     @Nullable
     public static ITrait get(ResourceLocation id) {
-        return MAP.get(id);
+        return snapshot.get(id);
     }
 
     @Nullable
@@ -117,16 +134,27 @@ public final class TraitManager implements ResourceManagerReloadListener {
         return get(new ResourceLocation(strId));
     }
 
+    /**
+     * Gets the dense indices of the currently loaded traits. This is replaced on every reload.
+     *
+     * @return The current trait index
+     */
+    public static TraitIndex getTraitIndex() {
+        return traitIndex;
+    }
+
     public static void handleTraitSyncPacket(SyncTraitsPacket packet, Supplier<NetworkEvent.Context> context) {
-        synchronized (MAP) {
-            Map<ResourceLocation, ITrait> oldTraits = ImmutableMap.copyOf(MAP);
-            MAP.clear();
+        synchronized (LOCK) {
+            RegistrySnapshot<ITrait> oldTraits = snapshot;
+            Map<ResourceLocation, ITrait> traits = new LinkedHashMap<>();
             for (ITrait trait : packet.getTraits()) {
                 trait.retainData(oldTraits.get(trait.getId()));
-                MAP.put(trait.getId(), trait);
+                traits.put(trait.getId(), trait);
             }
-            SilentGear.LOGGER.info("Read {} traits from server", MAP.size());
+            publish(traits);
+            SilentGear.LOGGER.info("Read {} traits from server", traits.size());
         }
+        DataEpoch.advance();
         context.get().setPacketHandled(true);
     }
 
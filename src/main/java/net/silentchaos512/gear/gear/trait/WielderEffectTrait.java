@@ -5,7 +5,6 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import net.minecraft.world.entity.player.Player;
-import net.minecraft.world.item.ItemStack;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.world.effect.MobEffect;
 import net.minecraft.world.effect.MobEffectInstance;
@@ -15,7 +14,6 @@ import net.minecraft.util.Mth;
 import net.minecraftforge.registries.ForgeRegistries;
 import net.silentchaos512.gear.SilentGear;
 import net.silentchaos512.gear.api.item.GearType;
-import net.silentchaos512.gear.api.item.ICoreArmor;
 import net.silentchaos512.gear.api.item.ICoreItem;
 import net.silentchaos512.gear.api.traits.ITraitSerializer;
 import net.silentchaos512.gear.api.traits.TraitActionContext;
@@ -36,6 +34,8 @@ public class WielderEffectTrait extends SimpleTrait {
     );
 
     private final Map<String, List<PotionData>> potions = new HashMap<>();
+    // Keys of potions parsed at load, missing if the type matches nothing
+    private final Map<String, GearType> potionGearTypes = new HashMap<>();
 
     private WielderEffectTrait(ResourceLocation id) {
         this(id, SERIALIZER);
@@ -47,7 +47,7 @@ public class WielderEffectTrait extends SimpleTrait {
 
     @Override
     public void onUpdate(TraitActionContext context, boolean isEquipped) {
-        if (!isEquipped || context.getPlayer() == null || context.getPlayer().tickCount % 10 != 0) return;
+        if (!isEquipped || context.getPlayer() == null) return;
 
         GearType gearType = ((ICoreItem) context.getGear().getItem()).getGearType();
 
@@ -58,11 +58,17 @@ public class WielderEffectTrait extends SimpleTrait {
         }
     }
 
+    @Override
+    public int getUpdateInterval() {
+        return 10;
+    }
+
     private void applyEffects(TraitActionContext context, GearType gearType, String type, Iterable<PotionData> effects) {
         Player player = context.getPlayer();
         assert player != null; // checked in onUpdate
 
-        if (gearType.matches(type) || "all".equals(type)) {
+        GearType potionGearType = potionGearTypes.get(type);
+        if (potionGearType != null && gearType.matches(potionGearType)) {
             int setPieceCount = getSetPieceCount(type, player);
             boolean hasFullSet = !"armor".equals(type) || setPieceCount >= 4;
 
@@ -78,13 +84,15 @@ public class WielderEffectTrait extends SimpleTrait {
     private int getSetPieceCount(String type, Player player) {
         if (!"armor".equals(type)) return 1;
 
-        int count = 0;
-        for (ItemStack stack : player.getArmorSlots()) {
-            if (stack.getItem() instanceof ICoreArmor && TraitHelper.hasTrait(stack, this)) {
-                ++count;
-            }
+        return TraitHelper.getArmorPieceCount(player, this);
+    }
+
+    private void putPotions(String type, List<PotionData> list) {
+        this.potions.put(type, list);
+        GearType gearType = GearType.forMatching(type);
+        if (gearType != null) {
+            this.potionGearTypes.put(type, gearType);
         }
-        return count;
     }
 
     static void deserializeJson(WielderEffectTrait trait, JsonObject json) {
@@ -114,13 +122,14 @@ public class WielderEffectTrait extends SimpleTrait {
             }
 
             if (!list.isEmpty()) {
-                trait.potions.put(key, list);
+                trait.putPotions(key, list);
             }
         }
     }
 
     static void readFromNetwork(WielderEffectTrait trait, FriendlyByteBuf buffer) {
         trait.potions.clear();
+        trait.potionGearTypes.clear();
         int gearTypeCount = buffer.readByte();
 
         for (int typeIndex = 0; typeIndex < gearTypeCount; ++typeIndex) {
@@ -132,7 +141,7 @@ public class WielderEffectTrait extends SimpleTrait {
                 list.add(PotionData.read(buffer));
             }
 
-            trait.potions.put(gearType, list);
+            trait.putPotions(gearType, list);
         }
     }
 
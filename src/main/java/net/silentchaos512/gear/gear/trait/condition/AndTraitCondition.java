@@ -45,6 +45,10 @@ public class AndTraitCondition implements ITraitCondition {
         this.children = values.clone();
     }
 
+    ITraitCondition[] getChildren() {
+        return this.children;
+    }
+
     @Override
     public ResourceLocation getId() {
         return NAME;
@@ -0,0 +1,217 @@
+package net.silentchaos512.gear.gear.trait.condition;
+
+import net.silentchaos512.gear.api.item.GearType;
+import net.silentchaos512.gear.api.traits.ITrait;
+import net.silentchaos512.gear.api.traits.ITraitCondition;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * All conditions of a trait instance, compiled into a flat program when the instance is created.
+ * Nested and/or conditions are merged, double negations are removed, and the children of each
+ * and/or are sorted so the cheapest are checked first. Conditions from other mods are checked
+ * last, through {@link ITraitCondition#matches}, in their original order.
+ * <p>
+ * The program is stored in pre-order. Each and/or/not instruction is followed by its children,
+ * and {@code ends} holds the position just past each instruction's subtree.
+ */
+public final class CompiledTraitConditions {
+    private static final byte AND = 0;
+    private static final byte OR = 1;
+    private static final byte NOT = 2;
+    private static final byte GEAR_TYPE = 3;
+    private static final byte MATERIAL_COUNT = 4;
+    private static final byte MATERIAL_RATIO = 5;
+    private static final byte OTHER = 6;
+
+    // Relative cost of checking each kind of condition, used to order and/or children
+    private static final int[] COSTS = {0, 0, 0, 1, 4, 4, 16};
+
+    private final byte[] ops;
+    private final int[] ends;
+    private final int[] intArgs;
+    private final float[] floatArgs;
+    private final Object[] objectArgs;
+
+    private CompiledTraitConditions(List<Node> program) {
+        int size = program.size();
+        this.ops = new byte[size];
+        this.ends = new int[size];
+        this.intArgs = new int[size];
+        this.floatArgs = new float[size];
+        this.objectArgs = new Object[size];
+
+        for (int i = 0; i < size; ++i) {
+            Node node = program.get(i);
+            this.ops[i] = node.op;
+            this.ends[i] = node.end;
+            this.intArgs[i] = node.intArg;
+            this.floatArgs[i] = node.floatArg;
+            this.objectArgs[i] = node.objectArg;
+        }
+    }
+
+    /**
+     * Compiles the conditions, which must all match.
+     *
+     * @param conditions The conditions
+     * @return The compiled conditions, or null if there are none (which always matches)
+     */
+    @Nullable
+    public static CompiledTraitConditions compile(Collection<ITraitCondition> conditions) {
+        if (conditions.isEmpty()) {
+            return null;
+        }
+
+        Node root = new Node(AND);
+        for (ITraitCondition condition : conditions) {
+            root.addChild(toNode(condition));
+        }
+
+        List<Node> program = new ArrayList<>();
+        simplify(root).flatten(program);
+        return new CompiledTraitConditions(program);
+    }
+
+    private static Node toNode(ITraitCondition condition) {
+        if (condition instanceof AndTraitCondition || condition instanceof OrTraitCondition) {
+            boolean and = condition instanceof AndTraitCondition;
+            Node node = new Node(and ? AND : OR);
+            ITraitCondition[] children = and
+                    ? ((AndTraitCondition) condition).getChildren()
+                    : ((OrTraitCondition) condition).getChildren();
+            for (ITraitCondition child : children) {
+                node.addChild(toNode(child));
+            }
+            return node;
+        }
+        if (condition instanceof NotTraitCondition) {
+            Node node = new Node(NOT);
+            node.addChild(toNode(((NotTraitCondition) condition).getChild()));
+            return node;
+        }
+        if (condition instanceof GearTypeTraitCondition) {
+            Node node = new Node(GEAR_TYPE);
+            node.objectArg = ((GearTypeTraitCondition) condition).getParsedGearType();
+            return node;
+        }
+        if (condition instanceof MaterialCountTraitCondition) {
+            Node node = new Node(MATERIAL_COUNT);
+            node.intArg = ((MaterialCountTraitCondition) condition).getRequiredCount();
+            return node;
+        }
+        if (condition instanceof MaterialRatioTraitCondition) {
+            Node node = new Node(MATERIAL_RATIO);
+            node.floatArg = ((MaterialRatioTraitCondition) condition).getRequiredRatio();
+            return node;
+        }
+
+        Node node = new Node(OTHER);
+        node.objectArg = condition;
+        return node;
+    }
+
+    private static Node simplify(Node node) {
+        if (node.op == NOT) {
+            Node child = simplify(node.children.get(0));
+            if (child.op == NOT) {
+                return child.children.get(0);
+            }
+            node.children.set(0, child);
+            node.cost = child.cost;
+            return node;
+        }
+
+        if (node.op != AND && node.op != OR) {
+            node.cost = COSTS[node.op];
+            return node;
+        }
+
+        List<Node> merged = new ArrayList<>();
+        for (Node child : node.children) {
+            Node simple = simplify(child);
+            if (simple.op == node.op) {
+                merged.addAll(simple.children);
+            } else {
+                merged.add(simple);
+            }
+        }
+        if (merged.size() == 1) {
+            return merged.get(0);
+        }
+
+        // Stable, so equal costs keep their original order
+        merged.sort(Comparator.comparingInt(n -> n.cost));
+        node.children.clear();
+        node.children.addAll(merged);
+        node.cost = merged.stream().mapToInt(n -> n.cost).sum();
+        return node;
+    }
+
+    public boolean matches(ITrait trait, TraitConditionContext context) {
+        return matches(0, trait, context);
+    }
+
+    private boolean matches(int pc, ITrait trait, TraitConditionContext context) {
+        switch (this.ops[pc]) {
+            case AND:
+                for (int child = pc + 1; child < this.ends[pc]; child = this.ends[child]) {
+                    if (!matches(child, trait, context)) {
+                        return false;
+                    }
+                }
+                return true;
+            case OR:
+                for (int child = pc + 1; child < this.ends[pc]; child = this.ends[child]) {
+                    if (matches(child, trait, context)) {
+                        return true;
+                    }
+                }
+                return false;
+            case NOT:
+                return !matches(pc + 1, trait, context);
+            case GEAR_TYPE: {
+                GearType gearType = (GearType) this.objectArgs[pc];
+                return context.getGear().isEmpty() || (gearType != null && context.getKey().getGearType().matches(gearType));
+            }
+            case MATERIAL_COUNT:
+                return context.countComponentsWithTrait(trait) >= this.intArgs[pc];
+            case MATERIAL_RATIO: {
+                float ratio = (float) context.countComponentsWithTrait(trait) / context.getComponents().size();
+                return ratio >= this.floatArgs[pc];
+            }
+            default:
+                return ((ITraitCondition) this.objectArgs[pc]).matches(trait, context.getKey(), context.getGear(), context.getComponents());
+        }
+    }
+
+    private static final class Node {
+        private final byte op;
+        private final List<Node> children = new ArrayList<>();
+        private int end;
+        private int cost;
+        private int intArg;
+        private float floatArg;
+        private Object objectArg;
+
+        private Node(byte op) {
+            this.op = op;
+        }
+
+        private void addChild(Node child) {
+            this.children.add(child);
+        }
+
+        private void flatten(List<Node> program) {
+            program.add(this);
+            for (Node child : this.children) {
+                child.flatten(program);
+            }
+            this.end = program.size();
+        }
+    }
+}
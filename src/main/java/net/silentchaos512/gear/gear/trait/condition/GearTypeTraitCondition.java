@@ -15,6 +15,7 @@ import net.silentchaos512.gear.api.util.IGearComponentInstance;
 import net.silentchaos512.gear.api.util.PartGearKey;
 import net.silentchaos512.gear.util.TextUtil;
 
+import javax.annotation.Nullable;
 import java.util.List;
 
 public class GearTypeTraitCondition implements ITraitCondition {
@@ -22,13 +23,21 @@ public class GearTypeTraitCondition implements ITraitCondition {
     private static final ResourceLocation NAME = SilentGear.getId("gear_type");
 
     private final String gearType;
+    @Nullable private final GearType parsedGearType;
 
     public GearTypeTraitCondition(String gearType) {
         this.gearType = gearType;
+        this.parsedGearType = GearType.forMatching(gearType);
     }
 
     public GearTypeTraitCondition(GearType gearType) {
         this.gearType = gearType.getName();
+        this.parsedGearType = gearType;
+    }
+
+    @Nullable
+    GearType getParsedGearType() {
+        return this.parsedGearType;
     }
 
     @Override
@@ -43,7 +52,7 @@ public class GearTypeTraitCondition implements ITraitCondition {
 
     @Override
     public boolean matches(ITrait trait, PartGearKey key, ItemStack gear, List<? extends IGearComponentInstance<?>> components) {
-        return gear.isEmpty() || key.getGearType().matches(this.gearType);
+        return gear.isEmpty() || (this.parsedGearType != null && key.getGearType().matches(this.parsedGearType));
     }
 
     @Override
@@ -27,6 +27,10 @@ public class MaterialCountTraitCondition implements ITraitCondition {
         this.requiredCount = requiredCount;
     }
 
+    int getRequiredCount() {
+        return this.requiredCount;
+    }
+
     @Override
     public ResourceLocation getId() {
         return NAME;
@@ -28,6 +28,10 @@ public class MaterialRatioTraitCondition implements ITraitCondition {
         this.requiredRatio = requiredRatio;
     }
 
+    float getRequiredRatio() {
+        return this.requiredRatio;
+    }
+
     @Override
     public ResourceLocation getId() {
         return NAME;
@@ -27,6 +27,10 @@ public class NotTraitCondition implements ITraitCondition {
         this.child = child;
     }
 
+    ITraitCondition getChild() {
+        return this.child;
+    }
+
     @Override
     public ResourceLocation getId() {
         return NAME;
@@ -45,6 +45,10 @@ public class OrTraitCondition implements ITraitCondition {
         this.children = values.clone();
     }
 
+    ITraitCondition[] getChildren() {
+        return this.children;
+    }
+
     @Override
     public ResourceLocation getId() {
         return NAME;
@@ -0,0 +1,66 @@
+package net.silentchaos512.gear.gear.trait.condition;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.world.item.ItemStack;
+import net.silentchaos512.gear.api.traits.ITrait;
+import net.silentchaos512.gear.api.traits.TraitInstance;
+import net.silentchaos512.gear.api.util.IGearComponentInstance;
+import net.silentchaos512.gear.api.util.PartGearKey;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The components trait conditions are checked against. A context can be shared by every trait
+ * instance checked against the same components, so the components' traits are only looked up
+ * once, however many instances have material count or ratio conditions.
+ */
+public final class TraitConditionContext {
+    private final PartGearKey key;
+    private final ItemStack gear;
+    private final List<? extends IGearComponentInstance<?>> components;
+    // Number of components with each trait, built when first needed
+    private Reference2IntOpenHashMap<ITrait> traitCounts;
+
+    public TraitConditionContext(PartGearKey key, ItemStack gear, List<? extends IGearComponentInstance<?>> components) {
+        this.key = key;
+        this.gear = gear;
+        this.components = components;
+    }
+
+    public PartGearKey getKey() {
+        return key;
+    }
+
+    public ItemStack getGear() {
+        return gear;
+    }
+
+    public List<? extends IGearComponentInstance<?>> getComponents() {
+        return components;
+    }
+
+    /**
+     * Counts the components which have the trait, the same as {@link
+     * MaterialCountTraitCondition} does.
+     *
+     * @param trait The trait
+     * @return The number of components with the trait
+     */
+    public int countComponentsWithTrait(ITrait trait) {
+        if (traitCounts == null) {
+            traitCounts = new Reference2IntOpenHashMap<>();
+            Set<ITrait> seen = new ReferenceOpenHashSet<>();
+            for (IGearComponentInstance<?> comp : components) {
+                seen.clear();
+                for (TraitInstance inst : comp.getTraits(key, gear)) {
+                    if (seen.add(inst.getTrait())) {
+                        traitCounts.addTo(inst.getTrait(), 1);
+                    }
+                }
+            }
+        }
+        return traitCounts.getInt(trait);
+    }
+}
@@ -102,8 +102,18 @@ public class CompoundPartItem extends Item {
     }
 
     public static MaterialList getMaterials(ItemStack stack) {
-        ListTag materialListNbt = stack.getOrCreateTag().getList(NBT_MATERIALS, Tag.TAG_COMPOUND);
-        return MaterialList.deserializeNbt(materialListNbt);
+        return MaterialList.deserializeNbt(getMaterialsNbt(stack));
+    }
+
+    /**
+     * Gets the serialized materials of the part without reading them. Do not modify the returned
+     * list.
+     *
+     * @param stack The compound part item
+     * @return The material list NBT
+     */
+    public static ListTag getMaterialsNbt(ItemStack stack) {
+        return stack.getOrCreateTag().getList(NBT_MATERIALS, Tag.TAG_COMPOUND);
     }
 
     @Nullable
@@ -30,6 +30,7 @@ import net.silentchaos512.gear.config.Config;
 import net.silentchaos512.gear.gear.material.MaterialInstance;
 import net.silentchaos512.gear.gear.part.PartData;
 import net.silentchaos512.gear.util.Const;
+import net.silentchaos512.gear.util.DataEpoch;
 import net.silentchaos512.gear.util.GearData;
 import net.silentchaos512.gear.util.GearHelper;
 import net.silentchaos512.gear.util.TraitHelper;
@@ -42,6 +43,7 @@ import java.util.UUID;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
 
 public class GearArmorItem extends DyeableArmorItem implements ICoreArmor {
     // Just copied from ArmorItem, access transformers are too flaky
@@ -57,6 +59,13 @@ public class GearArmorItem extends DyeableArmorItem implements ICoreArmor {
             .expireAfterWrite(5, TimeUnit.MINUTES)
             .build();
 
+    static {
+        DataEpoch.register(ARMOR_COLORS::invalidateAll);
+    }
+
+    // Created once, since getMaxDamage is called constantly and a capturing lambda would allocate
+    private final ToIntFunction<ItemStack> maxDamageCalculator = this::calculateMaxDamage;
+
     public GearArmorItem(EquipmentSlot slot) {
         super(ArmorMaterials.DIAMOND, slot, GearHelper.getBaseItemProperties());
     }
@@ -129,6 +138,10 @@ public class GearArmorItem extends DyeableArmorItem implements ICoreArmor {
     @Nonnull
     @Override
     public Multimap<Attribute, AttributeModifier> getAttributeModifiers(EquipmentSlot slot, ItemStack stack) {
+        return GearHelper.getCachedAttributeModifiers(slot, stack, () -> createAttributeModifiers(slot, stack));
+    }
+
+    private Multimap<Attribute, AttributeModifier> createAttributeModifiers(EquipmentSlot slot, ItemStack stack) {
         Multimap<Attribute, AttributeModifier> multimap = LinkedHashMultimap.create();
         if (slot == this.getSlot()) {
             UUID uuid = ARMOR_MODIFIERS[slot.getIndex()];
@@ -149,6 +162,10 @@ public class GearArmorItem extends DyeableArmorItem implements ICoreArmor {
 
     @Override
     public int getMaxDamage(ItemStack stack) {
+        return GearData.getMaxDamage(stack, maxDamageCalculator);
+    }
+
+    private int calculateMaxDamage(ItemStack stack) {
         int maxDamageFactor = GearData.getStatInt(stack, getDurabilityStat());
         return MAX_DAMAGE_ARRAY[this.getSlot().getIndex()] * maxDamageFactor;
     }
@@ -203,7 +203,7 @@ public class GearBowItem extends BowItem implements ICoreRangedWeapon {
 
     @Override
     public int getMaxDamage(ItemStack stack) {
-        return GearData.getStatInt(stack, ItemStats.DURABILITY);
+        return GearData.getMaxDamage(stack, s -> GearData.getStatInt(s, ItemStats.DURABILITY));
     }
 
     @Override
@@ -410,7 +410,7 @@ public class GearCrossbowItem extends CrossbowItem implements ICoreRangedWeapon
 
     @Override
     public int getMaxDamage(ItemStack stack) {
-        return GearData.getStatInt(stack, ItemStats.DURABILITY);
+        return GearData.getMaxDamage(stack, s -> GearData.getStatInt(s, ItemStats.DURABILITY));
     }
 
     @Override
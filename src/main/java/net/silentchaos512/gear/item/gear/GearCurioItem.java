@@ -33,6 +33,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
 
 public class GearCurioItem extends Item implements ICoreItem {
     private static final Collection<PartType> REQUIRED_PARTS = ImmutableList.of(
@@ -48,6 +49,7 @@ public class GearCurioItem extends Item implements ICoreItem {
 
     private final GearType gearType;
     private final String slot;
+    private final ToIntFunction<ItemStack> maxDamageCalculator = this::calculateMaxDamage;
 
     public GearCurioItem(GearType gearType, String slot, Properties properties) {
         super(properties);
@@ -133,6 +135,10 @@ public class GearCurioItem extends Item implements ICoreItem {
 
     @Override
     public int getMaxDamage(ItemStack stack) {
+        return GearData.getMaxDamage(stack, maxDamageCalculator);
+    }
+
+    private int calculateMaxDamage(ItemStack stack) {
         return GearData.getStatInt(stack, getDurabilityStat());
     }
 
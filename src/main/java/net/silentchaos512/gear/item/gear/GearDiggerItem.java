@@ -33,6 +33,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
 
 public class GearDiggerItem extends DiggerItem implements ICoreTool {
     private static final Map<ToolAction, Tag<Block>> TOOL_TYPES = ImmutableMap.<ToolAction, Tag<Block>>builder()
@@ -45,6 +46,7 @@ public class GearDiggerItem extends DiggerItem implements ICoreTool {
     private final Tag<Block> blocks;
     private final GearType gearType;
     private final Set<Material> extraMaterials;
+    private final ToIntFunction<ItemStack> maxDamageCalculator = this::calculateMaxDamage;
 
     public GearDiggerItem(GearType gearType, Tag<Block> blocks, Set<Material> extraMaterials, Properties properties) {
         super(0, 1, Tiers.DIAMOND, blocks, properties);
@@ -123,6 +125,10 @@ public class GearDiggerItem extends DiggerItem implements ICoreTool {
 
     @Override
     public int getMaxDamage(ItemStack stack) {
+        return GearData.getMaxDamage(stack, maxDamageCalculator);
+    }
+
+    private int calculateMaxDamage(ItemStack stack) {
         return GearData.getStatInt(stack, gearType.getDurabilityStat());
     }
 
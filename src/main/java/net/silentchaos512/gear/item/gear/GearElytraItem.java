@@ -34,6 +34,7 @@ import net.silentchaos512.gear.compat.curios.CuriosCompat;
 import net.silentchaos512.gear.config.Config;
 import net.silentchaos512.gear.gear.part.PartData;
 import net.silentchaos512.gear.util.Const;
+import net.silentchaos512.gear.util.GearData;
 import net.silentchaos512.gear.util.GearHelper;
 import net.silentchaos512.gear.util.TextUtil;
 import net.silentchaos512.gear.util.TraitHelper;
@@ -44,6 +45,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
 
 public class GearElytraItem extends ElytraItem implements ICoreArmor {
     private static final int DURABILITY_MULTIPLIER = 25;
@@ -73,6 +75,8 @@ public class GearElytraItem extends ElytraItem implements ICoreArmor {
             ItemStats.RANGED_SPEED
     );
 
+    private final ToIntFunction<ItemStack> maxDamageCalculator = this::calculateMaxDamage;
+
     public GearElytraItem(Properties builder) {
         super(builder.durability(100));
     }
@@ -130,6 +134,10 @@ public class GearElytraItem extends ElytraItem implements ICoreArmor {
 
     @Override
     public int getMaxDamage(ItemStack stack) {
+        return GearData.getMaxDamage(stack, maxDamageCalculator);
+    }
+
+    private int calculateMaxDamage(ItemStack stack) {
         return DURABILITY_MULTIPLIER * getStatInt(stack, getDurabilityStat());
     }
 
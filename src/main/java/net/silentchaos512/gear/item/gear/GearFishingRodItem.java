@@ -182,7 +182,7 @@ public class GearFishingRodItem extends FishingRodItem implements ICoreTool {
 
     @Override
     public int getMaxDamage(ItemStack stack) {
-        return GearData.getStatInt(stack, ItemStats.DURABILITY);
+        return GearData.getMaxDamage(stack, s -> GearData.getStatInt(s, ItemStats.DURABILITY));
     }
 
     @Override
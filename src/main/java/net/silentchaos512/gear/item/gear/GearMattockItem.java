@@ -113,7 +113,7 @@ public class GearMattockItem extends HoeItem implements ICoreTool {
 
     @Override
     public int getMaxDamage(ItemStack stack) {
-        return GearData.getStatInt(stack, ItemStats.DURABILITY);
+        return GearData.getMaxDamage(stack, s -> GearData.getStatInt(s, ItemStats.DURABILITY));
     }
 
     @Override
@@ -130,7 +130,7 @@ public class GearShearsItem extends ShearsItem implements ICoreTool {
 
     @Override
     public int getMaxDamage(ItemStack stack) {
-        return GearData.getStatInt(stack, ItemStats.DURABILITY);
+        return GearData.getMaxDamage(stack, s -> GearData.getStatInt(s, ItemStats.DURABILITY));
     }
 
     @Override
@@ -141,7 +141,7 @@ public class GearShieldItem extends ShieldItem implements ICoreItem {
 
     @Override
     public int getMaxDamage(ItemStack stack) {
-        return Math.round(DURABILITY_MULTI * GearData.getStat(stack, ItemStats.ARMOR_DURABILITY));
+        return GearData.getMaxDamage(stack, s -> Math.round(DURABILITY_MULTI * GearData.getStat(s, ItemStats.ARMOR_DURABILITY)));
     }
 
     @Override
@@ -9,6 +9,7 @@ import net.silentchaos512.gear.SilentGear;
 import net.silentchaos512.gear.api.part.IGearPart;
 import net.silentchaos512.gear.gear.part.AbstractGearPart;
 import net.silentchaos512.gear.gear.part.PartManager;
+import net.silentchaos512.gear.util.DataEpoch;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -57,6 +58,7 @@ public class SyncGearCraftingItemsPacket {
                 ((AbstractGearPart) part).updateCraftingItems(ingredient);
             }
         });
+        DataEpoch.advance();
         context.get().setPacketHandled(true);
     }
 }
@@ -8,6 +8,7 @@ import net.silentchaos512.gear.SilentGear;
 import net.silentchaos512.gear.api.material.IMaterial;
 import net.silentchaos512.gear.api.part.PartType;
 import net.silentchaos512.gear.gear.material.MaterialManager;
+import net.silentchaos512.gear.util.DataEpoch;
 
 import java.util.*;
 import java.util.function.Supplier;
@@ -95,6 +96,7 @@ public class SyncMaterialCraftingItemsPacket {
     public void handle(Supplier<NetworkEvent.Context> context) {
         SilentGear.LOGGER.debug("Correcting material crafting items");
         MaterialManager.getValues().forEach(m -> m.updateIngredient(this));
+        DataEpoch.advance();
         context.get().setPacketHandled(true);
     }
 }
@@ -0,0 +1,66 @@
+package net.silentchaos512.gear.util;
+
+import net.minecraftforge.event.TagsUpdatedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.silentchaos512.gear.SilentGear;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts changes to loaded data: material, part and trait reloads, syncs from the server,
+ * corrected crafting items and tag updates. Anything cached from that data must either register
+ * an invalidator here, or remember the epoch it was built in and compare it with {@link #get()}.
+ * <p>
+ * Invalidators may run on the server thread, a network thread or a resource reload worker, so
+ * they must be thread safe. Client caches which are only safe to touch on the render thread
+ * should schedule their work there.
+ * <p>
+ * Tag updates are handled here rather than by each manager. Tags are bound after reload listeners
+ * run on the server, and arrive in a separate packet after the data sync on the client, so caches
+ * built in between (like item indexes of crafting items) are cleared again once tags are bound.
+ */
+public final class DataEpoch {
+    private static final AtomicInteger EPOCH = new AtomicInteger();
+    private static final List<Runnable> INVALIDATORS = new CopyOnWriteArrayList<>();
+
+    private DataEpoch() {throw new IllegalAccessError("Utility class");}
+
+    /**
+     * @return The current epoch. This changes every time data is reloaded or synced.
+     */
+    public static int get() {
+        return EPOCH.get();
+    }
+
+    /**
+     * Registers something to run every time data changes, after the new data is available.
+     *
+     * @param invalidator Clears a cache
+     */
+    public static void register(Runnable invalidator) {
+        INVALIDATORS.add(invalidator);
+    }
+
+    /**
+     * Starts a new epoch and runs all invalidators. Call this after publishing changed data.
+     */
+    public static void advance() {
+        EPOCH.incrementAndGet();
+        for (Runnable invalidator : INVALIDATORS) {
+            invalidator.run();
+        }
+    }
+
+    @Mod.EventBusSubscriber(modid = SilentGear.MOD_ID)
+    public static final class EventHandler {
+        private EventHandler() {}
+
+        @SubscribeEvent
+        public static void onTagsUpdated(TagsUpdatedEvent event) {
+            advance();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package net.silentchaos512.gear.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.entity.EquipmentSlot;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.fml.ModList;
+import net.silentchaos512.gear.api.item.ICoreArmor;
+import net.silentchaos512.gear.compat.curios.CuriosCompat;
+import net.silentchaos512.gear.gear.trait.TraitIndex;
+import net.silentchaos512.gear.gear.trait.TraitManager;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * A summary of the trait levels on everything an entity has equipped, in each equipment slot and
+ * in curios. Summaries are built when first needed and kept until the entity's equipment or
+ * curios change, or one of its items is recalculated.
+ * <p>
+ * Only server-side entities are summarized. The client does not reliably get the events used to
+ * invalidate summaries, so callers should fall back to checking the items directly when a
+ * summary is {@link #UNKNOWN}.
+ */
+final class EquippedTraits {
+    static final int UNKNOWN = Integer.MIN_VALUE;
+
+    private static final EquipmentSlot[] SLOTS = EquipmentSlot.values();
+    private static final int CURIOS_SLOT = SLOTS.length;
+
+    // Bit masks of the slots to check, see slotMask
+    static final int HANDS = slotMask(EquipmentSlot.MAINHAND) | slotMask(EquipmentSlot.OFFHAND);
+    static final int ARMOR = slotMask(EquipmentSlot.HEAD) | slotMask(EquipmentSlot.CHEST) | slotMask(EquipmentSlot.LEGS) | slotMask(EquipmentSlot.FEET);
+    static final int CURIOS = 1 << CURIOS_SLOT;
+
+    private static final Cache<LivingEntity, EquippedTraits> CACHE = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
+
+    private final TraitIndex traitIndex;
+    // Trait levels in each slot, indexed by TraitIndex, or -1. Null if the slot has no gear.
+    private final int[][] levels;
+    // Slots which hold ICoreArmor
+    private final int coreArmorSlots;
+
+    private EquippedTraits(TraitIndex traitIndex, int[][] levels, int coreArmorSlots) {
+        this.traitIndex = traitIndex;
+        this.levels = levels;
+        this.coreArmorSlots = coreArmorSlots;
+    }
+
+    static int slotMask(EquipmentSlot slot) {
+        return 1 << slot.ordinal();
+    }
+
+    /**
+     * Gets the highest level of the trait in any of the slots.
+     *
+     * @param entity  The entity
+     * @param slots   A mask of the slots to check
+     * @param traitId The trait ID
+     * @return The highest level, -1 if no slot has the trait, or {@link #UNKNOWN} if the entity
+     * has no summary
+     */
+    static int getHighestLevel(LivingEntity entity, int slots, ResourceLocation traitId) {
+        EquippedTraits equipped = of(entity);
+        if (equipped == null) return UNKNOWN;
+
+        int index = equipped.traitIndex.indexOf(traitId);
+        if (index < 0) return UNKNOWN;
+
+        int max = -1;
+        for (int slot = 0; slot < equipped.levels.length; ++slot) {
+            int[] slotLevels = equipped.levels[slot];
+            if ((slots & (1 << slot)) != 0 && slotLevels != null) {
+                max = Math.max(max, slotLevels[index]);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Counts the armor slots holding {@link ICoreArmor} with the trait.
+     *
+     * @param entity  The entity
+     * @param traitId The trait ID
+     * @return The number of armor pieces with the trait, or {@link #UNKNOWN} if the entity has no
+     * summary
+     */
+    static int countCoreArmor(LivingEntity entity, ResourceLocation traitId) {
+        EquippedTraits equipped = of(entity);
+        if (equipped == null) return UNKNOWN;
+
+        int index = equipped.traitIndex.indexOf(traitId);
+        if (index < 0) return UNKNOWN;
+
+        int count = 0;
+        for (int slot = 0; slot < SLOTS.length; ++slot) {
+            if ((equipped.coreArmorSlots & (1 << slot)) != 0 && equipped.levels[slot][index] >= 0) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    static void invalidate(LivingEntity entity) {
+        CACHE.invalidate(entity);
+    }
+
+    @Nullable
+    private static EquippedTraits of(LivingEntity entity) {
+        if (entity.level.isClientSide) return null;
+
+        TraitIndex traitIndex = TraitManager.getTraitIndex();
+        EquippedTraits equipped = CACHE.getIfPresent(entity);
+        if (equipped == null || equipped.traitIndex != traitIndex) {
+            equipped = build(entity, traitIndex);
+            CACHE.put(entity, equipped);
+        }
+        return equipped;
+    }
+
+    private static EquippedTraits build(LivingEntity entity, TraitIndex traitIndex) {
+        int[][] levels = new int[CURIOS_SLOT + 1][];
+        int coreArmorSlots = 0;
+
+        for (EquipmentSlot slot : SLOTS) {
+            ItemStack stack = entity.getItemBySlot(slot);
+            if (GearHelper.isGear(stack)) {
+                levels[slot.ordinal()] = getLevels(stack, traitIndex, null);
+                if (slot.getType() == EquipmentSlot.Type.ARMOR && stack.getItem() instanceof ICoreArmor) {
+                    coreArmorSlots |= slotMask(slot);
+                }
+            }
+        }
+
+        if (ModList.get().isLoaded(Const.CURIOS)) {
+            int[] curioLevels = null;
+            for (ItemStack stack : CuriosCompat.getEquippedCurios(entity)) {
+                curioLevels = getLevels(stack, traitIndex, curioLevels);
+            }
+            levels[CURIOS_SLOT] = curioLevels;
+        }
+
+        return new EquippedTraits(traitIndex, levels, coreArmorSlots);
+    }
+
+    private static int[] getLevels(ItemStack stack, TraitIndex traitIndex, @Nullable int[] levels) {
+        if (levels == null) {
+            levels = new int[traitIndex.size()];
+            Arrays.fill(levels, -1);
+        }
+
+        GearTraitView view = GearTraitView.of(GearData.getPropertiesData(stack));
+        for (int i = 0; i < levels.length; ++i) {
+            levels[i] = Math.max(levels[i], view.getLevelByIndex(i));
+        }
+        return levels;
+    }
+}
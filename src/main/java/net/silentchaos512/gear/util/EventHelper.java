@@ -0,0 +1,44 @@
+package net.silentchaos512.gear.util;
+
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.eventbus.EventBus;
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.EventListenerHelper;
+import net.silentchaos512.gear.SilentGear;
+
+import java.lang.reflect.Field;
+
+/**
+ * Checks for listeners on the Forge event bus, so events which are fired very often can skip
+ * being constructed and posted when nothing would receive them.
+ */
+public final class EventHelper {
+    // ID of the Forge bus in each event's listener list, or -1 if it could not be found
+    private static final int FORGE_BUS_ID = findBusId();
+
+    private EventHelper() {throw new IllegalAccessError("Utility class");}
+
+    /**
+     * Checks if anything is listening for the event on the Forge event bus. Listeners for parent
+     * events count. If the bus cannot be checked, this assumes there are listeners.
+     *
+     * @param eventClass The event class
+     * @return True if posting the event could have any effect
+     */
+    public static boolean hasListeners(Class<? extends Event> eventClass) {
+        return FORGE_BUS_ID < 0 || EventListenerHelper.getListenerList(eventClass).getListeners(FORGE_BUS_ID).length > 0;
+    }
+
+    private static int findBusId() {
+        try {
+            if (MinecraftForge.EVENT_BUS instanceof EventBus) {
+                Field field = EventBus.class.getDeclaredField("busID");
+                field.setAccessible(true);
+                return field.getInt(MinecraftForge.EVENT_BUS);
+            }
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            SilentGear.LOGGER.warn("Could not find Forge event bus ID, all stat events will be fired", ex);
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,72 @@
+package net.silentchaos512.gear.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Multimap;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.entity.EquipmentSlot;
+import net.minecraft.world.entity.ai.attributes.Attribute;
+import net.minecraft.world.entity.ai.attributes.AttributeModifier;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Attribute modifiers of gear items, built once for each equipment slot. Modifiers only depend on
+ * the item's stats, traits and whether it is broken, so entries are kept in a weak side table
+ * keyed by the item's {@link GearStatView}. Recalculating stats or reloading traits creates new
+ * views, which drops the old entry. Broken and unbroken modifiers are cached separately.
+ */
+final class GearAttributeCache {
+    private static final EquipmentSlot[] SLOTS = EquipmentSlot.values();
+
+    private static final Cache<GearStatView, GearAttributeCache> CACHE = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
+
+    private final GearTraitView traits;
+    private final Item item;
+    // Modifiers for each slot when not broken, followed by each slot when broken
+    private final AtomicReferenceArray<Multimap<Attribute, AttributeModifier>> modifiers = new AtomicReferenceArray<>(SLOTS.length * 2);
+
+    private GearAttributeCache(GearTraitView traits, Item item) {
+        this.traits = traits;
+        this.item = item;
+    }
+
+    /**
+     * Gets the cached attribute modifiers of a gear item, building them if needed.
+     *
+     * @param slot    The equipment slot
+     * @param stack   The gear item
+     * @param factory Builds the modifiers. Must only depend on the item's stats, traits and
+     *                broken state.
+     * @return An immutable multimap of modifiers
+     */
+    static Multimap<Attribute, AttributeModifier> get(EquipmentSlot slot, ItemStack stack, Supplier<Multimap<Attribute, AttributeModifier>> factory) {
+        CompoundTag properties = GearData.getPropertiesData(stack);
+        GearStatView stats = GearStatView.of(properties);
+        if (stats == null) {
+            // Not calculated yet
+            return factory.get();
+        }
+
+        GearTraitView traits = GearTraitView.of(properties);
+        GearAttributeCache cache = CACHE.getIfPresent(stats);
+        if (cache == null || cache.traits != traits || cache.item != stack.getItem()) {
+            cache = new GearAttributeCache(traits, stack.getItem());
+            CACHE.put(stats, cache);
+        }
+
+        int index = slot.ordinal() + (GearHelper.isBroken(stack) ? SLOTS.length : 0);
+        Multimap<Attribute, AttributeModifier> ret = cache.modifiers.get(index);
+        if (ret == null) {
+            ret = ImmutableMultimap.copyOf(factory.get());
+            cache.modifiers.set(index, ret);
+        }
+        return ret;
+    }
+}
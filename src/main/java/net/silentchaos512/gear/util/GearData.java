@@ -3,7 +3,10 @@ package net.silentchaos512.gear.util;
 import net.minecraft.CrashReport;
 import net.minecraft.CrashReportCategory;
 import net.minecraft.ReportedException;
+import net.minecraft.Util;
+import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.Tag;
@@ -11,11 +14,13 @@ import net.minecraft.nbt.ListTag;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.util.Mth;
 import net.minecraft.world.level.Level;
+import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.entity.player.PlayerEvent.PlayerLoggedInEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.ModList;
 import net.minecraftforge.fml.common.Mod;
 import net.silentchaos512.gear.SilentGear;
+import net.silentchaos512.gear.api.event.GetPartStatModifiersEvent;
 import net.silentchaos512.gear.api.item.GearType;
 import net.silentchaos512.gear.api.item.ICoreItem;
 import net.silentchaos512.gear.api.part.IGearPart;
@@ -33,6 +38,9 @@ import net.silentchaos512.gear.gear.part.CompoundPart;
 import net.silentchaos512.gear.gear.part.PartData;
 import net.silentchaos512.gear.gear.part.PartManager;
 import net.silentchaos512.gear.gear.trait.EnchantmentTrait;
+import net.silentchaos512.gear.gear.trait.TraitHook;
+import net.silentchaos512.gear.gear.trait.TraitIndex;
+import net.silentchaos512.gear.gear.trait.TraitManager;
 import net.silentchaos512.gear.item.CompoundPartItem;
 import net.silentchaos512.gear.network.Network;
 import net.silentchaos512.gear.network.RecalculateStatsPacket;
@@ -42,7 +50,9 @@ import net.silentchaos512.utils.Color;
 
 import javax.annotation.Nullable;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 
 /**
  * Includes many methods for getting values from the NBT of gear items. Please make sure all
@@ -66,7 +76,6 @@ public final class GearData {
 
     private static final String NBT_BROKEN_COUNT = "BrokenCount";
     private static final String NBT_REPAIR_COUNT = "RepairCount";
-    private static final String NBT_STATS = "Stats";
 
     private GearData() {
         throw new IllegalAccessError("Utility class");
@@ -92,8 +101,85 @@ public final class GearData {
      *               player during crafting.
      */
     public static void recalculateStats(ItemStack gear, @Nullable Player player) {
+        recalculateStats(gear, player, null);
+    }
+
+    /**
+     * Recalculate many gear items at once. Traits and stat modifiers are gathered from copies of
+     * the items on the server thread, since that fires events and fills part caches. Stats are
+     * then computed from the modifiers on worker threads, and the results are applied to the items
+     * on the server thread, along with anything else that needs the player or the real item (like
+     * trait stat hooks). Items which are changed before the results are applied are recalculated
+     * from scratch.
+     *
+     * @param stacks The items to recalculate. Items which are not gear are ignored.
+     * @param player The player who has the items
+     * @return A future which completes on the server thread once all items are recalculated
+     */
+    public static CompletableFuture<Void> recalculateStats(Collection<ItemStack> stacks, ServerPlayer player) {
+        final long startTime = System.nanoTime();
+        List<ItemStack> gearList = new ArrayList<>();
+        List<CompletableFuture<PreparedStats>> futures = new ArrayList<>();
+
+        for (ItemStack stack : stacks) {
+            if (!GearHelper.isGear(stack)) continue;
+
+            // UUID must be assigned before the snapshot, or the snapshot would always be out of date
+            getUUID(stack);
+            ItemStack snapshot = stack.copy();
+            gearList.add(stack);
+
+            PreparedStats prepared;
+            try {
+                prepared = PreparedStats.prepare(snapshot);
+            } catch (RuntimeException ex) {
+                SilentGear.LOGGER.error("Failed to prepare stats for {}", snapshot, ex);
+                futures.add(CompletableFuture.completedFuture(null));
+                continue;
+            }
+            futures.add(CompletableFuture.supplyAsync(prepared::compute, Util.backgroundExecutor())
+                    .exceptionally(ex -> {
+                        SilentGear.LOGGER.error("Failed to compute stats for {}", snapshot, ex);
+                        return null;
+                    }));
+        }
+        final long gatherTime = System.nanoTime() - startTime;
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenRunAsync(() -> {
+            long workerTime = 0;
+            int stale = 0;
+
+            for (int i = 0; i < gearList.size(); ++i) {
+                PreparedStats prepared = futures.get(i).join();
+                if (prepared != null) {
+                    workerTime += prepared.time;
+                }
+                // One broken item must not stop the rest of the inventory from updating
+                ItemStack gear = gearList.get(i);
+                try {
+                    if (!recalculateStats(gear, player, prepared)) {
+                        ++stale;
+                    }
+                } catch (RuntimeException ex) {
+                    SilentGear.LOGGER.error("Failed to recalculate {} for {}, data: {}",
+                            NameUtils.fromItem(gear), player.getScoreboardName(), gear.getTag(), ex);
+                }
+            }
+
+            SilentGear.LOGGER.debug("Recalculated {} gear items for {} in {} ms ({} ms gathering modifiers, {} ms on worker threads, {} recalculated on server thread)",
+                    gearList.size(),
+                    player.getScoreboardName(),
+                    (System.nanoTime() - startTime) / 1_000_000,
+                    gatherTime / 1_000_000,
+                    workerTime / 1_000_000,
+                    stale);
+        }, player.server);
+    }
+
+    private static boolean recalculateStats(ItemStack gear, @Nullable Player player, @Nullable PreparedStats prepared) {
+        boolean usedPrepared;
         try {
-            tryRecalculateStats(gear, player);
+            usedPrepared = tryRecalculateStats(gear, player, prepared);
         } catch (Throwable ex) {
             CrashReport report = CrashReport.forThrowable(ex, "Failed to recalculate gear properties");
 
@@ -103,11 +189,16 @@ public final class GearData {
 
             throw new ReportedException(report);
         }
+
+        if (player != null) {
+            TraitHelper.invalidateEquippedTraits(player);
+        }
+        return usedPrepared;
     }
 
     @SuppressWarnings({"OverlyLongMethod", "OverlyComplexMethod"})
-    private static void tryRecalculateStats(ItemStack gear, @Nullable Player player) {
-        if (checkNonGearItem(gear, "recalculateStats")) return;
+    private static boolean tryRecalculateStats(ItemStack gear, @Nullable Player player, @Nullable PreparedStats prepared) {
+        if (checkNonGearItem(gear, "recalculateStats")) return false;
 
         getUUID(gear);
 
@@ -116,6 +207,11 @@ public final class GearData {
             return 0f;
         });
 
+        if (prepared != null && !prepared.matches(gear)) {
+            // Item was changed after it was prepared, so the results are useless
+            prepared = null;
+        }
+
         ICoreItem item = (ICoreItem) gear.getItem();
         PartDataList parts = getConstructionParts(gear);
 
@@ -135,10 +231,7 @@ public final class GearData {
             }
             clearCachedData(gear);
             propertiesCompound.putString("ModVersion", SilentGear.getVersion());
-            Map<ITrait, Integer> traits = TraitHelper.getTraits(gear, item.getGearType(), parts);
-
-            // Get all stat modifiers from all parts and item class modifiers
-            StatModifierMap stats = getStatModifiers(gear, item, parts);
+            Map<ITrait, Integer> traits = prepared != null ? prepared.traits : TraitHelper.getTraits(gear, item.getGearType(), parts);
 
             // For debugging
             Map<ItemStat, Float> oldStatValues = getCurrentStatsForDebugging(gear);
@@ -146,43 +239,30 @@ public final class GearData {
             // Cache traits in properties compound as well
             ListTag traitList = new ListTag();
             traits.forEach((trait, level) -> traitList.add(trait.write(level)));
-            propertiesCompound.put("Traits", traitList);
+            propertiesCompound.put(GearTraitView.NBT_TRAITS, traitList);
 
             propertiesCompound.remove(NBT_SYNERGY);
 
             // Calculate and write stats
-            int maxDamage = gear.getMaxDamage() > 0 ? gear.getMaxDamage() : 1;
-            final float damageRatio = Mth.clamp((float) gear.getDamageValue() / maxDamage, 0f, 1f);
-            CompoundTag statsCompound = new CompoundTag();
-            for (ItemStat stat : ItemStats.allStatsOrderedExcluding(item.getExcludedStats(gear))) {
-                StatGearKey key = StatGearKey.of(stat, item.getGearType());
-                Collection<StatInstance> modifiers = stats.get(key);
-                GearType statGearType = stats.getMostSpecificKey(key).getGearType();
-
-                final float initialValue = stat.compute(stat.getBaseValue(), true, item.getGearType(), statGearType, modifiers);
-                // Allow traits to modify stat
-                final float withTraits = TraitHelper.activateTraits(gear, initialValue, (trait, level, val) -> {
-                    TraitActionContext context = new TraitActionContext(player, level, gear);
-                    return trait.onGetStat(context, stat, val, damageRatio);
-                });
-                final float value = Config.Common.getStatWithMultiplier(stat, withTraits);
-                if (!Mth.equal(value, 0f) || stats.containsKey(key)) {
-                    ResourceLocation statId = Objects.requireNonNull(stat.getRegistryName());
-                    propertiesCompound.remove(statId.getPath()); // Remove old keys
-                    statsCompound.putFloat(statId.toString(), stat.clampValue(value));
-                }
-            }
-            // Put missing relevant stats in the map to avoid recalculate stats packet spam
-            for (ItemStat stat : item.getRelevantStats(gear)) {
-                String statKey = stat.getStatId().toString();
-                if (!statsCompound.contains(statKey)) {
-                    statsCompound.putFloat(statKey, stat.getDefaultValue());
-                }
+            final int statCount = ItemStats.getStatCount();
+            PartStatModifiers modifiers;
+            float[] initialValues;
+            boolean[] statsHaveModifiers;
+            if (prepared != null) {
+                modifiers = prepared.modifiers;
+                initialValues = prepared.initialValues;
+                statsHaveModifiers = prepared.hasModifiers;
+            } else {
+                modifiers = PartStatModifiers.gather(gear, item, parts);
+                initialValues = new float[statCount];
+                statsHaveModifiers = new boolean[statCount];
+                modifiers.compute(initialValues, statsHaveModifiers);
             }
-            propertiesCompound.put(NBT_STATS, statsCompound);
+            applyStatTraits(gear, player, item, propertiesCompound, initialValues, statsHaveModifiers);
 
-            if (player != null) {
-                printStatsForDebugging(gear, stats, oldStatValues);
+            if (player != null && oldStatValues != null) {
+                // Reuse the modifiers, since getting them again would fire events again
+                printStatsForDebugging(gear, modifiers.toMap(), oldStatValues);
             }
 
             // Remove enchantments if mod is configured to. Must be done before traits add enchantments!
@@ -203,6 +283,244 @@ public final class GearData {
 
         // Update rendering info even if we didn't update stats
         updateRenderingInfo(gear, parts);
+        return prepared != null;
+    }
+
+    /**
+     * Reapplies traits to the gear's stats, without rebuilding the trait list or anything else a
+     * full recalculation does. This is enough when only the item's damage has changed. Stats from
+     * the parts are computed again, but those come from cached material and part data. Items which
+     * do not have stats yet are fully recalculated instead.
+     *
+     * @param gear   The gear item
+     * @param player The player who has the item, if any
+     */
+    public static void refreshStats(ItemStack gear, @Nullable Player player) {
+        if (checkNonGearItem(gear, "refreshStats")) return;
+
+        CompoundTag propertiesCompound = getData(gear, NBT_ROOT_PROPERTIES);
+        if (propertiesCompound.getBoolean(NBT_LOCK_STATS) || GearStatView.of(propertiesCompound) == null) {
+            recalculateStats(gear, player);
+            return;
+        }
+
+        // Without stat traits, stats can only change by recalculating from the parts
+        if (GearTraitView.of(propertiesCompound).getPositions(TraitHook.GET_STAT).length == 0) return;
+
+        ICoreItem item = (ICoreItem) gear.getItem();
+        PartDataList parts = getConstructionParts(gear);
+        if (parts.isEmpty() || parts.getMains().isEmpty()) return;
+
+        final int statCount = ItemStats.getStatCount();
+        float[] initialValues = new float[statCount];
+        boolean[] hasModifiers = new boolean[statCount];
+        computeInitialStats(gear, item, parts, initialValues, hasModifiers);
+        applyStatTraits(gear, player, item, propertiesCompound, initialValues, hasModifiers);
+    }
+
+    /**
+     * Applies traits and config multipliers to the stats computed from the parts, then writes the
+     * final stats to the item.
+     */
+    private static void applyStatTraits(ItemStack gear, @Nullable Player player, ICoreItem item, CompoundTag propertiesCompound, float[] initialValues, boolean[] statsHaveModifiers) {
+        int maxDamage = gear.getMaxDamage() > 0 ? gear.getMaxDamage() : 1;
+        final float damageRatio = Mth.clamp((float) gear.getDamageValue() / maxDamage, 0f, 1f);
+        final int statCount = ItemStats.getStatCount();
+
+        float[] statValues = new float[statCount];
+        boolean[] statsPresent = new boolean[statCount];
+        for (ItemStat stat : ItemStats.allStatsOrderedExcluding(item.getExcludedStats(gear))) {
+            final boolean hasModifiers = statsHaveModifiers[stat.getIndex()];
+            final float initialValue = initialValues[stat.getIndex()];
+            // Allow traits to modify stat
+            final float withTraits = TraitHelper.activateTraits(gear, initialValue, TraitHook.GET_STAT, (trait, level, val) -> {
+                TraitActionContext context = new TraitActionContext(player, level, gear);
+                return trait.onGetStat(context, stat, val, damageRatio);
+            });
+            final float value = Config.Common.getStatWithMultiplier(stat, withTraits);
+            if (!Mth.equal(value, 0f) || hasModifiers) {
+                ResourceLocation statId = Objects.requireNonNull(stat.getRegistryName());
+                propertiesCompound.remove(statId.getPath()); // Remove old keys
+                statValues[stat.getIndex()] = stat.clampValue(value);
+                statsPresent[stat.getIndex()] = true;
+            }
+        }
+        // Put missing relevant stats in the map to avoid recalculate stats packet spam
+        for (ItemStat stat : item.getRelevantStats(gear)) {
+            if (!statsPresent[stat.getIndex()]) {
+                statValues[stat.getIndex()] = stat.getDefaultValue();
+                statsPresent[stat.getIndex()] = true;
+            }
+        }
+        GearStatView.write(propertiesCompound, statValues, statsPresent);
+    }
+
+    /**
+     * Computes stats from the parts' stat modifiers, before traits are applied.
+     */
+    private static void computeInitialStats(ItemStack gear, ICoreItem item, PartDataList parts, float[] initialValues, boolean[] hasModifiers) {
+        PartStatModifiers.gather(gear, item, parts).compute(initialValues, hasModifiers);
+    }
+
+    /**
+     * Gets the modifiers of each part for every stat and fires {@link GetPartStatModifiersEvent}
+     * for each part, but only if something listens for the event.
+     *
+     * @return The modifiers of each part, in the same order as {@code parts}, or null if nothing
+     * listens for the event and modifiers should be read from the parts directly
+     */
+    @Nullable
+    private static List<Map<ItemStat, List<StatInstance>>> getPartModifiers(ItemStack gear, GearType gearType, PartDataList parts, Collection<ItemStat> stats) {
+        if (!EventHelper.hasListeners(GetPartStatModifiersEvent.class)) {
+            return null;
+        }
+
+        List<Map<ItemStat, List<StatInstance>>> ret = new ArrayList<>(parts.size());
+        for (PartData part : parts) {
+            Map<ItemStat, List<StatInstance>> map = new LinkedHashMap<>();
+            for (ItemStat stat : stats) {
+                Collection<StatInstance> mods = part.getStatModifiers(StatGearKey.of(stat, gearType), gear);
+                if (!mods.isEmpty()) {
+                    map.put(stat, new ArrayList<>(mods));
+                }
+            }
+            MinecraftForge.EVENT_BUS.post(new GetPartStatModifiersEvent(gear, parts, part, map));
+            ret.add(map);
+        }
+        return ret;
+    }
+
+    private static Collection<StatInstance> getPartModifiers(@Nullable List<Map<ItemStat, List<StatInstance>>> partModifiers, PartDataList parts, int index, StatGearKey key, ItemStack gear) {
+        if (partModifiers != null) {
+            return partModifiers.get(index).getOrDefault((ItemStat) key.getStat(), Collections.emptyList());
+        }
+        return parts.get(index).getStatModifiers(key, gear);
+    }
+
+    /**
+     * The modifiers from all parts of a gear item for each of its stats. Gathering them fires
+     * events and fills part caches, so it must happen on the server thread. Computing stats from
+     * them is only arithmetic, which is safe on any thread.
+     */
+    private static final class PartStatModifiers {
+        private static final StatInstance[] NO_MODIFIERS = new StatInstance[0];
+
+        private final GearType gearType;
+        private final ItemStat[] stats;
+        // Parallel to stats
+        private final StatInstance[][] modifiers;
+
+        private PartStatModifiers(GearType gearType, ItemStat[] stats, StatInstance[][] modifiers) {
+            this.gearType = gearType;
+            this.stats = stats;
+            this.modifiers = modifiers;
+        }
+
+        static PartStatModifiers gather(ItemStack gear, ICoreItem item, PartDataList parts) {
+            GearType gearType = item.getGearType();
+            ItemStat[] stats = ItemStats.allStatsOrderedExcluding(item.getExcludedStats(gear)).toArray(new ItemStat[0]);
+            List<Map<ItemStat, List<StatInstance>>> partModifiers = getPartModifiers(gear, gearType, parts, Arrays.asList(stats));
+
+            StatInstance[][] modifiers = new StatInstance[stats.length][];
+            List<StatInstance> list = new ArrayList<>();
+            for (int j = 0; j < stats.length; ++j) {
+                // Get all stat modifiers from all parts, same as getStatModifiers but without copies
+                StatGearKey key = StatGearKey.of(stats[j], gearType);
+                list.clear();
+                for (int i = 0; i < parts.size(); ++i) {
+                    list.addAll(getPartModifiers(partModifiers, parts, i, key, gear));
+                }
+                modifiers[j] = list.toArray(NO_MODIFIERS);
+            }
+
+            return new PartStatModifiers(gearType, stats, modifiers);
+        }
+
+        void compute(float[] initialValues, boolean[] hasModifiers) {
+            StatModifierBuffer buffer = new StatModifierBuffer();
+            for (int j = 0; j < this.stats.length; ++j) {
+                ItemStat stat = this.stats[j];
+                buffer.clear();
+                for (StatInstance mod : this.modifiers[j]) {
+                    buffer.add(mod);
+                }
+                // All modifiers are filed under the item's key, see StatModifierMap#getMostSpecificKey
+                GearType statGearType = !buffer.isEmpty() ? this.gearType : GearType.ALL;
+                initialValues[stat.getIndex()] = stat.compute(stat.getBaseValue(), true, this.gearType, statGearType, buffer);
+                hasModifiers[stat.getIndex()] = !buffer.isEmpty();
+            }
+        }
+
+        /**
+         * Copies the modifiers into a map, like {@link #getStatModifiers(ItemStack, ICoreItem,
+         * PartDataList)} would return.
+         */
+        StatModifierMap toMap() {
+            StatModifierMap map = new StatModifierMap();
+            for (int j = 0; j < this.stats.length; ++j) {
+                StatGearKey itemKey = StatGearKey.of(this.stats[j], this.gearType);
+                for (StatInstance mod : this.modifiers[j]) {
+                    StatInstance modCopy = StatInstance.of(mod.getValue(), mod.getOp(), itemKey);
+                    map.put(modCopy.getKey(), modCopy);
+                }
+            }
+            return map;
+        }
+    }
+
+    /**
+     * Traits and stat modifiers of a gear item gathered on the server thread, and the stats
+     * computed from them on a worker thread, see {@link #recalculateStats(Collection,
+     * ServerPlayer)}. These are only valid for an item with the same NBT, and only until data is
+     * reloaded.
+     */
+    private static final class PreparedStats {
+        private final Item item;
+        @Nullable private final CompoundTag tag;
+        private final TraitIndex traitIndex;
+        private final Map<ITrait, Integer> traits;
+        private final PartStatModifiers modifiers;
+        private final float[] initialValues;
+        private final boolean[] hasModifiers;
+        private long time;
+
+        private PreparedStats(Item item, @Nullable CompoundTag tag, TraitIndex traitIndex, Map<ITrait, Integer> traits, PartStatModifiers modifiers) {
+            this.item = item;
+            this.tag = tag;
+            this.traitIndex = traitIndex;
+            this.traits = traits;
+            this.modifiers = modifiers;
+            final int statCount = ItemStats.getStatCount();
+            this.initialValues = new float[statCount];
+            this.hasModifiers = new boolean[statCount];
+        }
+
+        static PreparedStats prepare(ItemStack gear) {
+            TraitIndex traitIndex = TraitManager.getTraitIndex();
+            // Reading data can add missing compounds, so keep the tag as it was
+            CompoundTag tag = gear.getTag() != null ? gear.getTag().copy() : null;
+
+            ICoreItem item = (ICoreItem) gear.getItem();
+            PartDataList parts = getConstructionParts(gear);
+            Map<ITrait, Integer> traits = TraitHelper.getTraits(gear, item.getGearType(), parts);
+            PartStatModifiers modifiers = PartStatModifiers.gather(gear, item, parts);
+
+            return new PreparedStats(gear.getItem(), tag, traitIndex, traits, modifiers);
+        }
+
+        PreparedStats compute() {
+            final long startTime = System.nanoTime();
+            this.modifiers.compute(this.initialValues, this.hasModifiers);
+            this.time = System.nanoTime() - startTime;
+            return this;
+        }
+
+        boolean matches(ItemStack gear) {
+            return gear.getItem() == this.item
+                    && Objects.equals(gear.getTag(), this.tag)
+                    && TraitManager.getTraitIndex() == this.traitIndex
+                    && ItemStats.getStatCount() == this.initialValues.length;
+        }
     }
 
     @Nullable
@@ -278,12 +596,14 @@ public final class GearData {
     public static StatModifierMap getStatModifiers(ItemStack stack, ICoreItem item, PartDataList parts) {
         GearType gearType = item.getGearType();
         StatModifierMap stats = new StatModifierMap();
+        Collection<ItemStat> statsToGet = ItemStats.allStatsOrderedExcluding(item.getExcludedStats(stack));
+        List<Map<ItemStat, List<StatInstance>>> partModifiers = getPartModifiers(stack, gearType, parts, statsToGet);
 
-        for (ItemStat stat : ItemStats.allStatsOrderedExcluding(item.getExcludedStats(stack))) {
+        for (ItemStat stat : statsToGet) {
             StatGearKey itemKey = StatGearKey.of(stat, gearType);
 
-            for (PartData part : parts) {
-                for (StatInstance mod : part.getStatModifiers(itemKey, stack)) {
+            for (int i = 0; i < parts.size(); ++i) {
+                for (StatInstance mod : getPartModifiers(partModifiers, parts, i, itemKey, stack)) {
                     StatInstance modCopy = StatInstance.of(mod.getValue(), mod.getOp(), itemKey);
                     stats.put(modCopy.getKey(), modCopy);
                 }
@@ -298,10 +618,10 @@ public final class GearData {
     }
 
     public static float getStat(ItemStack stack, IItemStat stat, boolean calculateIfMissing) {
-        CompoundTag tags = getData(stack, NBT_ROOT_PROPERTIES).getCompound(NBT_STATS);
-        String key = stat.getStatId().toString();
-        if (tags.contains(key)) {
-            return tags.getFloat(key);
+        ItemStat itemStat = stat instanceof ItemStat ? (ItemStat) stat : ItemStats.get(stat);
+        GearStatView view = GearStatView.of(getData(stack, NBT_ROOT_PROPERTIES));
+        if (itemStat != null && view != null && view.contains(itemStat)) {
+            return view.get(itemStat, stat.getDefaultValue());
         }
 
         if (calculateIfMissing) {
@@ -319,15 +639,41 @@ public final class GearData {
         return stat.getDefaultValue();
     }
 
+    /**
+     * Gets the max damage of a gear item, which is cached with its decoded stats until the stats
+     * change. Gear items should call this from {@link Item#getMaxDamage(ItemStack)}.
+     *
+     * @param stack      The gear item
+     * @param calculator Calculates max damage from the item's stats, must not depend on damage
+     * @return The max damage
+     */
+    public static int getMaxDamage(ItemStack stack, ToIntFunction<ItemStack> calculator) {
+        GearStatView view = GearStatView.of(getData(stack, NBT_ROOT_PROPERTIES));
+        if (view == null) {
+            return calculator.applyAsInt(stack);
+        }
+        return view.getMaxDamage(stack, calculator);
+    }
+
     public static int getStatInt(ItemStack stack, IItemStat stat) {
         return Math.round(getStat(stack, stat));
     }
 
     public static void putStatInNbtIfMissing(ItemStack stack, IItemStat stat) {
-        CompoundTag tags = getData(stack, NBT_ROOT_PROPERTIES).getCompound(NBT_STATS);
-        String key = stat.getStatId().toString();
-        if (!tags.contains(key)) {
-            tags.putFloat(key, stat.getDefaultValue());
+        ItemStat itemStat = stat instanceof ItemStat ? (ItemStat) stat : ItemStats.get(stat);
+        if (itemStat == null) return;
+
+        CompoundTag properties = getData(stack, NBT_ROOT_PROPERTIES);
+        GearStatView view = GearStatView.of(properties);
+        if (view == null) {
+            int statCount = ItemStats.getStatCount();
+            float[] values = new float[statCount];
+            boolean[] present = new boolean[statCount];
+            values[itemStat.getIndex()] = stat.getDefaultValue();
+            present[itemStat.getIndex()] = true;
+            GearStatView.write(properties, values, present);
+        } else if (!view.contains(itemStat)) {
+            view.writeWith(properties, itemStat, stat.getDefaultValue());
         }
     }
 
@@ -791,15 +1137,23 @@ public final class GearData {
 
         @SubscribeEvent
         public static void onPlayerLoggedIn(PlayerLoggedInEvent event) {
-            Player player = event.getPlayer();
+            if (!(event.getPlayer() instanceof ServerPlayer player)) return;
+
+            List<ItemStack> stacks = new ArrayList<>();
             StackList.from(player.getInventory())
                     .stream()
                     .filter(s -> s.getItem() instanceof ICoreItem)
-                    .forEach(s -> recalculateStats(s, player));
+                    .forEach(stacks::add);
 
             if (ModList.get().isLoaded(Const.CURIOS)) {
-                CuriosCompat.getEquippedCurios(player).forEach(s -> recalculateStats(s, player));
+                stacks.addAll(CuriosCompat.getEquippedCurios(player));
             }
+
+            recalculateStats(stacks, player).whenComplete((v, ex) -> {
+                if (ex != null) {
+                    SilentGear.LOGGER.error("Failed to recalculate gear for {}", player.getScoreboardName(), ex);
+                }
+            });
         }
     }
 }
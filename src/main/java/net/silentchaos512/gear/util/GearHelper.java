@@ -55,6 +55,7 @@ import net.silentchaos512.gear.crafting.ingredient.IGearIngredient;
 import net.silentchaos512.gear.gear.material.MaterialInstance;
 import net.silentchaos512.gear.gear.part.PartData;
 import net.silentchaos512.gear.gear.part.PartManager;
+import net.silentchaos512.gear.gear.trait.TraitHook;
 import net.silentchaos512.lib.advancements.LibTriggers;
 
 import javax.annotation.Nullable;
@@ -63,6 +64,7 @@ import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -147,8 +149,30 @@ public final class GearHelper {
         return speed;
     }
 
+    /**
+     * Gets the attribute modifiers of a gear item in the slot. The result is cached until the
+     * item's stats or traits change, or it breaks or is repaired, and cannot be modified.
+     *
+     * @param slot  The equipment slot
+     * @param stack The gear item
+     * @return An immutable multimap of attribute modifiers
+     */
     public static Multimap<Attribute, AttributeModifier> getAttributeModifiers(EquipmentSlot slot, ItemStack stack) {
-        return getAttributeModifiers(slot, stack, true);
+        return getCachedAttributeModifiers(slot, stack, () -> getAttributeModifiers(slot, stack, true));
+    }
+
+    /**
+     * Gets cached attribute modifiers of a gear item, for items which build their modifiers
+     * differently. See {@link #getAttributeModifiers(EquipmentSlot, ItemStack)}.
+     *
+     * @param slot    The equipment slot
+     * @param stack   The gear item
+     * @param factory Builds the modifiers when they are not cached. Must only depend on the item's
+     *                stats, traits and whether it is broken.
+     * @return An immutable multimap of attribute modifiers
+     */
+    public static Multimap<Attribute, AttributeModifier> getCachedAttributeModifiers(EquipmentSlot slot, ItemStack stack, Supplier<Multimap<Attribute, AttributeModifier>> factory) {
+        return GearAttributeCache.get(slot, stack, factory);
     }
 
     public static Multimap<Attribute, AttributeModifier> getAttributeModifiers(EquipmentSlot slot, ItemStack stack, boolean addStandardMainHandMods) {
@@ -182,7 +206,8 @@ public final class GearHelper {
             });
         }
 
-        TraitHelper.getCachedTraits(stack).forEach((trait, level) -> trait.onGetAttributeModifiers(new TraitActionContext(null, level, stack), map, slot));
+        TraitHelper.forEachCachedTrait(stack, TraitHook.GET_ATTRIBUTE_MODIFIERS, (trait, level) ->
+                trait.onGetAttributeModifiers(new TraitActionContext(null, level, stack), map, slot));
 
         return map;
     }
@@ -246,9 +271,9 @@ public final class GearHelper {
             amount = Math.min(maxDamage - stack.getDamageValue(), amount);
         stack.hurt(amount, SilentGear.RANDOM, player);
 
-        // Recalculate stats occasionally
+        // Refresh damage-dependent stats occasionally
         if (getDamageFactor(stack, maxDamage) != preDamageFactor) {
-            GearData.recalculateStats(stack, player);
+            GearData.refreshStats(stack, player);
             if (player != null)
                 onDamageFactorChange(player, preDamageFactor, getDamageFactor(stack, maxDamage));
         }
@@ -332,6 +357,11 @@ public final class GearHelper {
     }
 
     public static boolean isBroken(ItemStack stack) {
+        GearMiningProfile profile = GearMiningProfile.of(stack);
+        if (profile != null) {
+            return profile.isBroken(stack);
+        }
+
         if (stack.isEmpty() || canBreakPermanently(stack) || isUnbreakable(stack))
             return false;
 
@@ -429,6 +459,11 @@ public final class GearHelper {
     }
 
     public static int getHarvestLevel(ItemStack stack, @Nullable BlockState state) {
+        GearMiningProfile profile = GearMiningProfile.of(stack);
+        if (profile != null) {
+            return profile.getHarvestLevel(stack);
+        }
+
         if (isBroken(stack))
             return -1;
 
@@ -437,23 +472,26 @@ public final class GearHelper {
 
     @Nullable
     public static Tier getTier(ItemStack stack) {
-        switch (getHarvestLevel(stack, null)) {
-            case -1:
-                // Broken or invalid tool
-                return null;
-            case 0:
-                return Tiers.WOOD;
-            case 1:
-                return Tiers.STONE;
-            case 2:
-                return Tiers.IRON;
-            case 3:
-                return Tiers.DIAMOND;
-            case 4:
-                return Tiers.NETHERITE;
-            default:
-                return Tiers.NETHERITE;
+        GearMiningProfile profile = GearMiningProfile.of(stack);
+        if (profile != null) {
+            return profile.getTier(stack);
         }
+        return GearMiningProfile.getTierForLevel(getHarvestLevel(stack, null));
+    }
+
+    /**
+     * Gets the level of the lustrous trait on the gear item. Cached with the item's mining
+     * profile, so it is cheap to call while breaking blocks.
+     *
+     * @param stack The gear item
+     * @return The lustrous level, or zero if the item does not have it
+     */
+    public static int getLustrousLevel(ItemStack stack) {
+        GearMiningProfile profile = GearMiningProfile.of(stack);
+        if (profile != null) {
+            return profile.getLustrousLevel();
+        }
+        return TraitHelper.getTraitLevel(stack, Const.Traits.LUSTROUS);
     }
 
     public static boolean isCorrectToolForDrops(ItemStack stack, BlockState state, @Nullable Tag<Block> blocksForTool, Set<Material> extraMaterials) {
@@ -468,10 +506,11 @@ public final class GearHelper {
     }
 
     public static float getDestroySpeed(ItemStack stack, BlockState state, @Nullable Set<Material> extraMaterials) {
-        if (isBroken(stack))
+        GearMiningProfile profile = GearMiningProfile.of(stack);
+        if (profile != null ? profile.isBroken(stack) : isBroken(stack))
             return BROKEN_DESTROY_SPEED;
 
-        float speed = GearData.getStat(stack, ItemStats.HARVEST_SPEED);
+        float speed = profile != null ? profile.getHarvestSpeed() : GearData.getStat(stack, ItemStats.HARVEST_SPEED);
 
         // Tool effective on block?
         if (stack.getItem().isCorrectToolForDrops(stack, state)) {
@@ -0,0 +1,129 @@
+package net.silentchaos512.gear.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Tier;
+import net.minecraft.world.item.Tiers;
+import net.silentchaos512.gear.api.stats.ItemStats;
+import net.silentchaos512.gear.config.Config;
+
+import javax.annotation.Nullable;
+
+/**
+ * Everything block breaking needs to know about a gear item, resolved once so mining callbacks
+ * (which run many times per tick) do not read stats or traits. Like {@link GearAttributeCache},
+ * profiles are kept in a weak side table keyed by the item's {@link GearStatView}, and are rebuilt
+ * when the item's stats or traits change.
+ * <p>
+ * Damage is not part of the profile. Whether the item is broken is worked out from its current
+ * damage and the cached max damage.
+ */
+final class GearMiningProfile {
+    private static final Cache<GearStatView, GearMiningProfile> CACHE = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
+
+    private final GearTraitView traits;
+    private final Item item;
+    private final int maxDamage;
+    private final boolean redCard;
+    private final boolean unbreakable;
+    private final int harvestLevel;
+    @Nullable private final Tier tier;
+    private final float harvestSpeed;
+    private final int lustrousLevel;
+
+    @SuppressWarnings("ConstructorWithTooManyParameters")
+    private GearMiningProfile(GearTraitView traits, Item item, int maxDamage, boolean redCard, boolean unbreakable, int harvestLevel, float harvestSpeed, int lustrousLevel) {
+        this.traits = traits;
+        this.item = item;
+        this.maxDamage = maxDamage;
+        this.redCard = redCard;
+        this.unbreakable = unbreakable;
+        this.harvestLevel = harvestLevel;
+        this.tier = getTierForLevel(harvestLevel);
+        this.harvestSpeed = harvestSpeed;
+        this.lustrousLevel = lustrousLevel;
+    }
+
+    /**
+     * Gets the mining profile of a gear item, building it if needed.
+     *
+     * @param stack The item
+     * @return The profile, or null if the item is not gear or has no stats yet
+     */
+    @Nullable
+    static GearMiningProfile of(ItemStack stack) {
+        if (!GearHelper.isGear(stack)) {
+            return null;
+        }
+
+        CompoundTag properties = GearData.getPropertiesData(stack);
+        GearStatView stats = GearStatView.of(properties);
+        if (stats == null) {
+            return null;
+        }
+
+        GearTraitView traits = GearTraitView.of(properties);
+        GearMiningProfile profile = CACHE.getIfPresent(stats);
+        if (profile == null || profile.traits != traits || profile.item != stack.getItem()) {
+            profile = new GearMiningProfile(traits, stack.getItem(),
+                    stack.getMaxDamage(),
+                    traits.getLevel(Const.Traits.RED_CARD.getId()) >= 0,
+                    traits.getLevel(Const.Traits.INDESTRUCTIBLE.getId()) > 0,
+                    GearData.getStatInt(stack, ItemStats.HARVEST_LEVEL),
+                    GearData.getStat(stack, ItemStats.HARVEST_SPEED),
+                    Math.max(0, traits.getLevel(Const.Traits.LUSTROUS.getId())));
+            CACHE.put(stats, profile);
+        }
+        return profile;
+    }
+
+    @Nullable
+    static Tier getTierForLevel(int harvestLevel) {
+        switch (harvestLevel) {
+            case -1:
+                // Broken or invalid tool
+                return null;
+            case 0:
+                return Tiers.WOOD;
+            case 1:
+                return Tiers.STONE;
+            case 2:
+                return Tiers.IRON;
+            case 3:
+                return Tiers.DIAMOND;
+            case 4:
+                return Tiers.NETHERITE;
+            default:
+                return Tiers.NETHERITE;
+        }
+    }
+
+    boolean isBroken(ItemStack stack) {
+        if (this.unbreakable || this.redCard || Config.Common.gearBreaksPermanently.get()) {
+            return false;
+        }
+        return this.maxDamage > 0 && stack.getDamageValue() >= this.maxDamage - 1;
+    }
+
+    int getHarvestLevel(ItemStack stack) {
+        return isBroken(stack) ? -1 : this.harvestLevel;
+    }
+
+    @Nullable
+    Tier getTier(ItemStack stack) {
+        return isBroken(stack) ? null : this.tier;
+    }
+
+    float getHarvestSpeed() {
+        return this.harvestSpeed;
+    }
+
+    int getLustrousLevel() {
+        return this.lustrousLevel;
+    }
+}
@@ -0,0 +1,210 @@
+package net.silentchaos512.gear.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.IntArrayTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.StringTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.silentchaos512.gear.api.stats.ItemStat;
+import net.silentchaos512.gear.api.stats.ItemStats;
+import net.silentchaos512.gear.api.stats.StatPalette;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.function.ToIntFunction;
+
+/**
+ * A decoded, read-only copy of the stats of a gear item. Stat values are stored in a primitive
+ * array indexed by {@link ItemStat#getIndex()}, so reading a stat does not need to build any
+ * strings or do any NBT lookups.
+ * <p>
+ * Stats are stored on the item as a list of stat IDs and a parallel array of float bits. This is
+ * about the same size as the old compound of stat IDs to floats, but decoding only visits the
+ * stats the item has, instead of checking the compound for every stat that exists. Stat IDs are
+ * resolved through {@link StatPalette}, and stats which no longer exist are skipped. Items from
+ * older versions store the old compound, which is still read here. The packed form replaces it
+ * on the next recalculation.
+ * <p>
+ * Views are kept in a weak side table keyed by the identity of the compound they were decoded
+ * from. Stats are only ever written as a new compound, which makes any old view unreachable.
+ * Views also remember the size of their compound, so entries added in place to old-style
+ * compounds are picked up as well.
+ * <p>
+ * The item's max damage is also cached in its view once it is first needed, since it is read
+ * on every render of the durability bar. See {@link GearData#getMaxDamage}.
+ */
+final class GearStatView {
+    static final String NBT_PACKED_STATS = "PackedStats";
+    static final String NBT_LEGACY_STATS = "Stats";
+
+    private static final String NBT_VERSION = "Version";
+    private static final String NBT_PALETTE = "Palette";
+    private static final String NBT_VALUES = "Values";
+    private static final byte PACKED_VERSION = 1;
+
+    private static final Cache<CompoundTag, GearStatView> VIEWS = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
+
+    private final int sourceSize;
+    private final float[] values;
+    private final boolean[] present;
+    // Set when first needed, see getMaxDamage
+    @Nullable private volatile MaxDamage maxDamage;
+
+    private GearStatView(int sourceSize, float[] values, boolean[] present) {
+        this.sourceSize = sourceSize;
+        this.values = values;
+        this.present = present;
+    }
+
+    /**
+     * Gets the stat view of a gear item's properties compound, decoding it if needed.
+     *
+     * @param properties The properties compound of the gear item
+     * @return The decoded view, or null if the item has no stats yet
+     */
+    @Nullable
+    static GearStatView of(CompoundTag properties) {
+        final boolean packed;
+        if (properties.contains(NBT_PACKED_STATS, Tag.TAG_COMPOUND)) {
+            packed = true;
+        } else if (properties.contains(NBT_LEGACY_STATS, Tag.TAG_COMPOUND)) {
+            packed = false;
+        } else {
+            return null;
+        }
+
+        CompoundTag statsTag = properties.getCompound(packed ? NBT_PACKED_STATS : NBT_LEGACY_STATS);
+        GearStatView view = VIEWS.getIfPresent(statsTag);
+        if (view == null || view.sourceSize != statsTag.size()) {
+            view = packed ? decodePacked(statsTag) : decodeLegacy(statsTag);
+            VIEWS.put(statsTag, view);
+        }
+        return view;
+    }
+
+    private static GearStatView decodePacked(CompoundTag statsTag) {
+        StatPalette palette = StatPalette.get();
+        float[] values = new float[palette.size()];
+        boolean[] present = new boolean[palette.size()];
+
+        if (statsTag.getByte(NBT_VERSION) == PACKED_VERSION) {
+            ListTag names = statsTag.getList(NBT_PALETTE, Tag.TAG_STRING);
+            int[] bits = statsTag.getIntArray(NBT_VALUES);
+
+            for (int i = 0; i < names.size() && i < bits.length; ++i) {
+                ItemStat stat = palette.byName(names.getString(i));
+                if (stat != null) {
+                    values[stat.getIndex()] = Float.intBitsToFloat(bits[i]);
+                    present[stat.getIndex()] = true;
+                }
+            }
+        }
+
+        return new GearStatView(statsTag.size(), values, present);
+    }
+
+    private static GearStatView decodeLegacy(CompoundTag statsTag) {
+        StatPalette palette = StatPalette.get();
+        float[] values = new float[palette.size()];
+        boolean[] present = new boolean[palette.size()];
+
+        for (ItemStat stat : ItemStats.allStatsOrdered()) {
+            String key = stat.getStatId().toString();
+            if (statsTag.contains(key)) {
+                values[stat.getIndex()] = statsTag.getFloat(key);
+                present[stat.getIndex()] = true;
+            }
+        }
+
+        return new GearStatView(statsTag.size(), values, present);
+    }
+
+    /**
+     * Writes stats to a gear item's properties compound in the packed form, removing any
+     * old-style stats compound.
+     *
+     * @param properties The properties compound of the gear item
+     * @param values     Stat values, indexed by {@link ItemStat#getIndex()}
+     * @param present    Which stats to write, indexed by {@link ItemStat#getIndex()}
+     */
+    static void write(CompoundTag properties, float[] values, boolean[] present) {
+        properties.put(NBT_PACKED_STATS, pack(values, present));
+        properties.remove(NBT_LEGACY_STATS);
+    }
+
+    private static CompoundTag pack(float[] values, boolean[] present) {
+        ListTag names = new ListTag();
+        IntArrayList bits = new IntArrayList();
+        for (ItemStat stat : ItemStats.allStatsOrdered()) {
+            int index = stat.getIndex();
+            if (index < present.length && present[index]) {
+                names.add(StringTag.valueOf(stat.getStatId().toString()));
+                bits.add(Float.floatToIntBits(values[index]));
+            }
+        }
+
+        CompoundTag statsTag = new CompoundTag();
+        statsTag.putByte(NBT_VERSION, PACKED_VERSION);
+        statsTag.put(NBT_PALETTE, names);
+        statsTag.put(NBT_VALUES, new IntArrayTag(bits.toIntArray()));
+        return statsTag;
+    }
+
+    /**
+     * Gets the max damage of the item these stats belong to, calculating it if needed.
+     *
+     * @param stack      The gear item
+     * @param calculator Calculates max damage from the item's stats
+     * @return The max damage
+     */
+    int getMaxDamage(ItemStack stack, ToIntFunction<ItemStack> calculator) {
+        MaxDamage cached = this.maxDamage;
+        if (cached == null || cached.item != stack.getItem()) {
+            cached = new MaxDamage(stack.getItem(), calculator.applyAsInt(stack));
+            this.maxDamage = cached;
+        }
+        return cached.value;
+    }
+
+    /**
+     * Copies this view with one additional stat value and writes it to the properties compound.
+     *
+     * @param properties The properties compound of the gear item
+     * @param stat       The stat to add
+     * @param value      The stat value
+     */
+    void writeWith(CompoundTag properties, ItemStat stat, float value) {
+        int size = Math.max(this.values.length, stat.getIndex() + 1);
+        float[] newValues = Arrays.copyOf(this.values, size);
+        boolean[] newPresent = Arrays.copyOf(this.present, size);
+        newValues[stat.getIndex()] = value;
+        newPresent[stat.getIndex()] = true;
+        write(properties, newValues, newPresent);
+    }
+
+    boolean contains(ItemStat stat) {
+        int index = stat.getIndex();
+        return index < this.present.length && this.present[index];
+    }
+
+    float get(ItemStat stat, float defaultValue) {
+        return contains(stat) ? this.values[stat.getIndex()] : defaultValue;
+    }
+
+    private static final class MaxDamage {
+        private final Item item;
+        private final int value;
+
+        private MaxDamage(Item item, int value) {
+            this.item = item;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package net.silentchaos512.gear.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.resources.ResourceLocation;
+import net.silentchaos512.gear.api.traits.ITrait;
+import net.silentchaos512.gear.gear.trait.TraitHook;
+import net.silentchaos512.gear.gear.trait.TraitIndex;
+import net.silentchaos512.gear.gear.trait.TraitManager;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A decoded, read-only copy of the traits cached on a gear item. Traits are resolved once, and
+ * levels can be looked up by {@link TraitIndex} index without reading any NBT or building any
+ * strings. Traits are also grouped by the {@link TraitHook}s they implement, so callers can skip
+ * traits which would do nothing, and updating traits are scheduled by their update interval.
+ * <p>
+ * Like {@link GearStatView}, views are kept in a weak side table keyed by the identity of the
+ * trait list. Recalculating stats always writes a new list. Views are also rebuilt if the list
+ * size or the trait index changes.
+ */
+final class GearTraitView {
+    static final String NBT_TRAITS = "Traits";
+
+    private static final TraitHook[] HOOKS = TraitHook.values();
+    private static final GearTraitView EMPTY = new GearTraitView(null, 0, new ITrait[0], new int[0], new ResourceLocation[0], new int[0], new int[0], new ITrait[0], new int[0], new int[HOOKS.length][0], new int[HOOKS.length][0], new int[0], 1);
+
+    private static final Cache<ListTag, GearTraitView> VIEWS = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
+
+    @Nullable private final TraitIndex traitIndex;
+    private final int sourceSize;
+    // Loaded traits and their levels, in NBT order
+    private final ITrait[] traits;
+    private final int[] levels;
+    // Every entry, including traits which are not loaded
+    private final ResourceLocation[] ids;
+    private final int[] idLevels;
+    // Level of the first entry of each trait, indexed by TraitIndex, or -1
+    private final int[] levelByIndex;
+    // One entry per trait with its last positive level, same as TraitHelper#getCachedTraits
+    private final ITrait[] mergedTraits;
+    private final int[] mergedLevels;
+    // Positions in traits and mergedTraits of the traits implementing each hook
+    private final int[][] positionsByHook;
+    private final int[][] mergedPositionsByHook;
+    // Update interval of each trait in the UPDATE positions, and the GCD of all of them
+    private final int[] updateIntervals;
+    private final int updatePeriod;
+
+    @SuppressWarnings("ConstructorWithTooManyParameters")
+    private GearTraitView(@Nullable TraitIndex traitIndex, int sourceSize, ITrait[] traits, int[] levels, ResourceLocation[] ids, int[] idLevels, int[] levelByIndex,
+                          ITrait[] mergedTraits, int[] mergedLevels, int[][] positionsByHook, int[][] mergedPositionsByHook,
+                          int[] updateIntervals, int updatePeriod) {
+        this.traitIndex = traitIndex;
+        this.sourceSize = sourceSize;
+        this.traits = traits;
+        this.levels = levels;
+        this.ids = ids;
+        this.idLevels = idLevels;
+        this.levelByIndex = levelByIndex;
+        this.mergedTraits = mergedTraits;
+        this.mergedLevels = mergedLevels;
+        this.positionsByHook = positionsByHook;
+        this.mergedPositionsByHook = mergedPositionsByHook;
+        this.updateIntervals = updateIntervals;
+        this.updatePeriod = updatePeriod;
+    }
+
+    /**
+     * Gets the trait view of a gear item, decoding it if needed.
+     *
+     * @param properties The properties compound of the gear item
+     * @return The decoded view, which is empty if the item has no traits
+     */
+    static GearTraitView of(CompoundTag properties) {
+        if (!properties.contains(NBT_TRAITS, Tag.TAG_LIST)) {
+            return EMPTY;
+        }
+
+        ListTag tagList = properties.getList(NBT_TRAITS, Tag.TAG_COMPOUND);
+        if (tagList.isEmpty()) {
+            return EMPTY;
+        }
+
+        TraitIndex traitIndex = TraitManager.getTraitIndex();
+        GearTraitView view = VIEWS.getIfPresent(tagList);
+        if (view == null || view.traitIndex != traitIndex || view.sourceSize != tagList.size()) {
+            view = decode(tagList, traitIndex);
+            VIEWS.put(tagList, view);
+        }
+        return view;
+    }
+
+    private static GearTraitView decode(ListTag tagList, TraitIndex traitIndex) {
+        int size = tagList.size();
+        ITrait[] traits = new ITrait[size];
+        int[] levels = new int[size];
+        ResourceLocation[] ids = new ResourceLocation[size];
+        int[] idLevels = new int[size];
+        int[] levelByIndex = new int[traitIndex.size()];
+        Arrays.fill(levelByIndex, -1);
+
+        int[] traitIndices = new int[size];
+        Map<ITrait, Integer> merged = new LinkedHashMap<>();
+        int traitCount = 0;
+        int idCount = 0;
+        for (int i = 0; i < size; ++i) {
+            CompoundTag tagCompound = tagList.getCompound(i);
+            ResourceLocation id = ResourceLocation.tryParse(tagCompound.getString("Name"));
+            if (id == null) continue;
+
+            int level = tagCompound.getByte("Level");
+            ids[idCount] = id;
+            idLevels[idCount] = level;
+            ++idCount;
+
+            int index = traitIndex.indexOf(id);
+            ITrait trait = traitIndex.byIndex(index);
+            if (trait != null) {
+                traits[traitCount] = trait;
+                levels[traitCount] = level;
+                traitIndices[traitCount] = index;
+                ++traitCount;
+
+                if (level > 0) {
+                    merged.put(trait, level);
+                }
+
+                if (levelByIndex[index] < 0) {
+                    levelByIndex[index] = level;
+                }
+            }
+        }
+
+        ITrait[] mergedTraits = merged.keySet().toArray(new ITrait[0]);
+        int[] mergedLevels = new int[mergedTraits.length];
+        int[] mergedIndices = new int[mergedTraits.length];
+        for (int i = 0; i < mergedTraits.length; ++i) {
+            mergedLevels[i] = merged.get(mergedTraits[i]);
+            mergedIndices[i] = traitIndex.indexOf(mergedTraits[i].getId());
+        }
+
+        int[][] positionsByHook = new int[HOOKS.length][];
+        int[][] mergedPositionsByHook = new int[HOOKS.length][];
+        for (TraitHook hook : HOOKS) {
+            positionsByHook[hook.ordinal()] = getPositionsWithHook(traitIndex, hook, traitIndices, traitCount);
+            mergedPositionsByHook[hook.ordinal()] = getPositionsWithHook(traitIndex, hook, mergedIndices, mergedIndices.length);
+        }
+
+        int[] updatePositions = positionsByHook[TraitHook.UPDATE.ordinal()];
+        int[] updateIntervals = new int[updatePositions.length];
+        int updatePeriod = 0;
+        for (int i = 0; i < updatePositions.length; ++i) {
+            updateIntervals[i] = traitIndex.getUpdateInterval(traitIndices[updatePositions[i]]);
+            updatePeriod = gcd(updatePeriod, updateIntervals[i]);
+        }
+
+        return new GearTraitView(traitIndex, size,
+                Arrays.copyOf(traits, traitCount), Arrays.copyOf(levels, traitCount),
+                Arrays.copyOf(ids, idCount), Arrays.copyOf(idLevels, idCount),
+                levelByIndex, mergedTraits, mergedLevels, positionsByHook, mergedPositionsByHook,
+                updateIntervals, Math.max(1, updatePeriod));
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    private static int[] getPositionsWithHook(TraitIndex traitIndex, TraitHook hook, int[] traitIndices, int count) {
+        int[] positions = new int[count];
+        int found = 0;
+        for (int i = 0; i < count; ++i) {
+            if (traitIndex.hasHook(traitIndices[i], hook)) {
+                positions[found++] = i;
+            }
+        }
+        return Arrays.copyOf(positions, found);
+    }
+
+    int size() {
+        return this.traits.length;
+    }
+
+    ITrait getTrait(int i) {
+        return this.traits[i];
+    }
+
+    int getLevel(int i) {
+        return this.levels[i];
+    }
+
+    /**
+     * Gets the positions of traits which implement the hook, for use with {@link #getTrait(int)}
+     * and {@link #getLevel(int)}.
+     *
+     * @param hook The hook
+     * @return Trait positions, in NBT order
+     */
+    int[] getPositions(TraitHook hook) {
+        return this.positionsByHook[hook.ordinal()];
+    }
+
+    /**
+     * Gets the update interval of each trait in {@link #getPositions(TraitHook)} for {@link
+     * TraitHook#UPDATE}, in the same order.
+     *
+     * @return Update intervals in ticks
+     */
+    int[] getUpdateIntervals() {
+        return this.updateIntervals;
+    }
+
+    /**
+     * Gets the greatest common divisor of all update intervals. No trait is due on ticks which are
+     * not a multiple of this.
+     *
+     * @return The update period in ticks, at least one
+     */
+    int getUpdatePeriod() {
+        return this.updatePeriod;
+    }
+
+    int mergedSize() {
+        return this.mergedTraits.length;
+    }
+
+    ITrait getMergedTrait(int i) {
+        return this.mergedTraits[i];
+    }
+
+    int getMergedLevel(int i) {
+        return this.mergedLevels[i];
+    }
+
+    /**
+     * Same as {@link #getPositions(TraitHook)}, but for {@link #getMergedTrait(int)} and {@link
+     * #getMergedLevel(int)}.
+     *
+     * @param hook The hook
+     * @return Merged trait positions
+     */
+    int[] getMergedPositions(TraitHook hook) {
+        return this.mergedPositionsByHook[hook.ordinal()];
+    }
+
+    /**
+     * Same as {@link #getLevel(ResourceLocation)}, but only for loaded traits.
+     *
+     * @param index The trait's index in the current {@link TraitIndex}
+     * @return The trait level, or -1 if the item does not have the trait
+     */
+    int getLevelByIndex(int index) {
+        return index >= 0 && index < this.levelByIndex.length ? this.levelByIndex[index] : -1;
+    }
+
+    /**
+     * Gets the level of the first entry for the trait, which may be zero.
+     *
+     * @param traitId The trait ID
+     * @return The trait level, or -1 if the item does not have the trait
+     */
+    int getLevel(ResourceLocation traitId) {
+        if (this.traitIndex != null) {
+            int index = this.traitIndex.indexOf(traitId);
+            if (index >= 0) {
+                return this.levelByIndex[index];
+            }
+        }
+
+        // Trait is not loaded, but the item could still have it
+        for (int i = 0; i < this.ids.length; ++i) {
+            if (this.ids[i].equals(traitId)) {
+                return this.idLevels[i];
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,169 @@
+package net.silentchaos512.gear.util;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import net.minecraft.Util;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.Resource;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.util.GsonHelper;
+import org.apache.commons.io.IOUtils;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Reads, parses and deserializes data pack JSON files on worker threads. Reload listeners use this
+ * to load their files in parallel, then go through the results in the original file order (on
+ * their own thread) to log errors and build the new registry. Results do not depend on which
+ * files finish first.
+ * <p>
+ * Deserializers run on worker threads, so they must not change any shared state.
+ */
+public final class JsonResourceLoader {
+    private JsonResourceLoader() {throw new IllegalAccessError("Utility class");}
+
+    @FunctionalInterface
+    public interface Deserializer<T> {
+        /**
+         * Deserializes a file.
+         *
+         * @param name     The name of the object, which is the file path without the data path and
+         *                 extension
+         * @param packName The name of the pack the file is from
+         * @param json     The file contents
+         * @return The object, or null if it should be skipped (conditions not met)
+         * @throws JsonParseException       If the file is invalid
+         * @throws IllegalArgumentException If the file is invalid
+         */
+        @Nullable
+        T deserialize(ResourceLocation name, String packName, JsonObject json);
+    }
+
+    /**
+     * Loads the files in parallel and waits for all of them. Exceptions other than read and parse
+     * errors are rethrown, like they would be if the files were loaded one by one.
+     *
+     * @param resourceManager The resource manager
+     * @param resources       The files to load
+     * @param dataPath        The data path the files are in, removed from their names
+     * @param gson            Gson instance used to parse the files
+     * @param deserializer    Deserializes each file
+     * @param <T>             The type of object
+     * @return A result for each file, in the same order as {@code resources}
+     */
+    public static <T> List<Entry<T>> load(ResourceManager resourceManager, Collection<ResourceLocation> resources, String dataPath, Gson gson, Deserializer<? extends T> deserializer) {
+        List<CompletableFuture<Entry<T>>> futures = new ArrayList<>(resources.size());
+        for (ResourceLocation id : resources) {
+            futures.add(CompletableFuture.supplyAsync(() -> load(resourceManager, id, dataPath, gson, deserializer), Util.backgroundExecutor()));
+        }
+
+        List<Entry<T>> ret = new ArrayList<>(futures.size());
+        for (CompletableFuture<Entry<T>> future : futures) {
+            try {
+                ret.add(future.join());
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                throw ex;
+            }
+        }
+        return ret;
+    }
+
+    private static <T> Entry<T> load(ResourceManager resourceManager, ResourceLocation id, String dataPath, Gson gson, Deserializer<? extends T> deserializer) {
+        String path = id.getPath().substring(dataPath.length() + 1, id.getPath().length() - ".json".length());
+        Entry<T> entry = new Entry<>(id, new ResourceLocation(id.getNamespace(), path));
+
+        try (Resource iresource = resourceManager.getResource(id)) {
+            entry.packName = iresource.getSourceName();
+            entry.json = GsonHelper.fromJson(gson, IOUtils.toString(iresource.getInputStream(), StandardCharsets.UTF_8), JsonObject.class);
+            if (entry.json != null) {
+                entry.value = deserializer.deserialize(entry.name, entry.packName, entry.json);
+            }
+        } catch (IllegalArgumentException | JsonParseException ex) {
+            entry.error = ex;
+        } catch (IOException ex) {
+            entry.error = ex;
+            entry.readError = true;
+        }
+
+        return entry;
+    }
+
+    public static final class Entry<T> {
+        private final ResourceLocation id;
+        private final ResourceLocation name;
+        private String packName = "ERROR";
+        @Nullable private JsonObject json;
+        @Nullable private T value;
+        @Nullable private Exception error;
+        private boolean readError;
+
+        private Entry(ResourceLocation id, ResourceLocation name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        /**
+         * @return The file location
+         */
+        public ResourceLocation getId() {
+            return id;
+        }
+
+        /**
+         * @return The name of the object
+         */
+        public ResourceLocation getName() {
+            return name;
+        }
+
+        /**
+         * @return The name of the pack the file is from, or "ERROR" if it could not be opened
+         */
+        public String getPackName() {
+            return packName;
+        }
+
+        /**
+         * @return The parsed file, or null if it is empty or could not be read
+         */
+        @Nullable
+        public JsonObject getJson() {
+            return json;
+        }
+
+        /**
+         * @return The deserialized object, or null if the file was skipped or failed to load
+         */
+        @Nullable
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * @return The exception if the file failed to load, otherwise null
+         */
+        @Nullable
+        public Exception getError() {
+            return error;
+        }
+
+        /**
+         * @return True if the file failed to load because it could not be read, false if it was
+         * invalid or loaded successfully
+         */
+        public boolean isReadError() {
+            return readError;
+        }
+    }
+}
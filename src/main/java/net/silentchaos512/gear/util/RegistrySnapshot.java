@@ -0,0 +1,91 @@
+package net.silentchaos512.gear.util;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.resources.ResourceLocation;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable copy of the objects loaded by a data manager (materials, parts or traits). Managers
+ * publish a new snapshot through a volatile field on each reload or sync, so lookups need no lock
+ * and lists do not need to be copied. Code which needs several lookups to agree with each other
+ * should get the snapshot once and use it for all of them.
+ *
+ * @param <T> The type of object
+ */
+public final class RegistrySnapshot<T> {
+    private static final RegistrySnapshot<?> EMPTY = new RegistrySnapshot<>(ImmutableMap.of());
+
+    private final ImmutableMap<ResourceLocation, T> byId;
+    private final ImmutableList<T> values;
+    private final Reference2IntMap<T> indices;
+
+    private RegistrySnapshot(ImmutableMap<ResourceLocation, T> byId) {
+        this.byId = byId;
+        this.values = byId.values().asList();
+        this.indices = new Reference2IntOpenHashMap<>(this.values.size());
+        this.indices.defaultReturnValue(-1);
+        for (int i = 0; i < this.values.size(); ++i) {
+            this.indices.put(this.values.get(i), i);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> RegistrySnapshot<T> empty() {
+        return (RegistrySnapshot<T>) EMPTY;
+    }
+
+    /**
+     * Creates a snapshot of the objects.
+     *
+     * @param map The objects by ID, in load order
+     * @param <T> The type of object
+     * @return A new snapshot
+     */
+    public static <T> RegistrySnapshot<T> of(Map<ResourceLocation, T> map) {
+        return new RegistrySnapshot<>(ImmutableMap.copyOf(map));
+    }
+
+    @Nullable
+    public T get(ResourceLocation id) {
+        return this.byId.get(id);
+    }
+
+    /**
+     * @return An immutable set of all IDs, in load order
+     */
+    public Set<ResourceLocation> getKeys() {
+        return this.byId.keySet();
+    }
+
+    /**
+     * @return An immutable list of all objects, in load order
+     */
+    public ImmutableList<T> getValues() {
+        return this.values;
+    }
+
+    /**
+     * Gets the position of the object in {@link #getValues()}. Objects from an older snapshot are
+     * not found, even if they have the same ID.
+     *
+     * @param value The object
+     * @return The dense index of the object, or -1 if it is not in this snapshot
+     */
+    public int indexOf(T value) {
+        return this.indices.getInt(value);
+    }
+
+    public int size() {
+        return this.values.size();
+    }
+
+    public boolean isEmpty() {
+        return this.values.isEmpty();
+    }
+}
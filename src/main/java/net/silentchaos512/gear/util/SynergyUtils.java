@@ -1,20 +1,25 @@
 package net.silentchaos512.gear.util;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.util.Mth;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.TextComponent;
 import net.minecraft.ChatFormatting;
+import net.silentchaos512.gear.SilentGear;
 import net.silentchaos512.gear.api.material.IMaterialInstance;
 import net.silentchaos512.gear.api.part.PartType;
 import net.silentchaos512.gear.api.stats.ItemStats;
 import net.silentchaos512.gear.api.traits.TraitInstance;
+import net.silentchaos512.gear.config.Config;
 import net.silentchaos512.gear.gear.trait.SynergyTrait;
 
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public final class SynergyUtils {
@@ -26,8 +31,51 @@ public final class SynergyUtils {
     private static final double MIN_VALUE = 0.1;
     public static final double MAX_VALUE = 2.0;
 
+    private static final Cache<Object, Float> CACHE = CacheBuilder.newBuilder()
+            .maximumSize(5000)
+            .build();
+
     private SynergyUtils() {}
 
+    /**
+     * Gets the synergy of a part, reusing the value from an earlier call with an equal composition
+     * key. The key must identify everything synergy depends on (part, materials and anything that
+     * affects the part's traits), and must not change after it is passed in.
+     * <p>
+     * With {@code debug.verifyCachedSynergy} enabled, cached values are checked against a fresh
+     * calculation and any mismatch is logged.
+     *
+     * @param compositionKey Identifies the part composition
+     * @param partType       The part type
+     * @param materials      The part's materials
+     * @param traits         Gets the part's traits, only called if synergy must be calculated
+     * @return The synergy value
+     */
+    public static float getSynergy(Object compositionKey, PartType partType, List<? extends IMaterialInstance> materials, Supplier<Collection<TraitInstance>> traits) {
+        Float cached = CACHE.getIfPresent(compositionKey);
+        if (cached != null) {
+            if (Config.Common.verifyCachedSynergy.get()) {
+                float fresh = getSynergy(partType, materials, traits.get());
+                if (Float.compare(fresh, cached) != 0) {
+                    SilentGear.LOGGER.error("Cached synergy mismatch for {}: cached {}, calculated {}", compositionKey, cached, fresh);
+                }
+            }
+            return cached;
+        }
+
+        float synergy = getSynergy(partType, materials, traits.get());
+        CACHE.put(compositionKey, synergy);
+        return synergy;
+    }
+
+    /**
+     * Clears cached synergy values. Called along with {@link
+     * net.silentchaos512.gear.gear.part.CompoundPart#clearCache()}.
+     */
+    public static void clearCache() {
+        CACHE.invalidateAll();
+    }
+
     public static float getSynergy(PartType partType, List<? extends IMaterialInstance> materials, Collection<TraitInstance> traits) {
         // TODO: Factor material categories into calculation, decrease weight of rarity and maybe tier
         //  https://github.com/SilentChaos512/Silent-Gear/issues/267
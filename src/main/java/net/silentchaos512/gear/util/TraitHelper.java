@@ -19,11 +19,9 @@
 package net.silentchaos512.gear.util;
 
 import com.google.common.collect.ImmutableMap;
-import net.minecraft.nbt.CompoundTag;
-import net.minecraft.nbt.ListTag;
-import net.minecraft.nbt.Tag;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.util.Mth;
+import net.minecraft.world.entity.EquipmentSlot;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ItemStack;
@@ -33,6 +31,7 @@ import net.minecraftforge.fml.ModList;
 import net.silentchaos512.gear.SilentGear;
 import net.silentchaos512.gear.api.event.GetTraitsEvent;
 import net.silentchaos512.gear.api.item.GearType;
+import net.silentchaos512.gear.api.item.ICoreArmor;
 import net.silentchaos512.gear.api.part.PartDataList;
 import net.silentchaos512.gear.api.traits.ITrait;
 import net.silentchaos512.gear.api.traits.TraitActionContext;
@@ -42,10 +41,14 @@ import net.silentchaos512.gear.api.util.IGearComponentInstance;
 import net.silentchaos512.gear.api.util.PartGearKey;
 import net.silentchaos512.gear.compat.curios.CuriosCompat;
 import net.silentchaos512.gear.gear.part.PartData;
+import net.silentchaos512.gear.gear.trait.TraitHook;
+import net.silentchaos512.gear.gear.trait.TraitIndex;
 import net.silentchaos512.gear.gear.trait.TraitManager;
+import net.silentchaos512.gear.gear.trait.condition.TraitConditionContext;
 
 import javax.annotation.Nullable;
 import java.util.*;
+import java.util.function.ObjIntConsumer;
 
 public final class TraitHelper {
     private TraitHelper() {throw new IllegalAccessError("Utility class");}
@@ -54,7 +57,7 @@ public final class TraitHelper {
      * An easy way to activate an item's traits from anywhere. <strong>Use with care!</strong>
      * Calling this frequently (like every render tick) causes FPS to tank.
      * <p>
-     * This implementation pulls the item's traits straight from NBT to minimize object creation.
+     * This implementation uses the item's traits as cached in NBT, which are only decoded once.
      * The {@link TraitFunction} is applied to every trait.
      *
      * @param gear       The {@link net.silentchaos512.gear.api.item.ICoreItem} affected
@@ -71,20 +74,39 @@ public final class TraitHelper {
             return inputValue;
         }
 
-        ListTag tagList = GearData.getPropertiesData(gear).getList("Traits", Tag.TAG_COMPOUND);
+        GearTraitView traits = GearTraitView.of(GearData.getPropertiesData(gear));
         float value = inputValue;
 
-        for (Tag nbt : tagList) {
-            if (nbt instanceof CompoundTag) {
-                CompoundTag tagCompound = (CompoundTag) nbt;
-                String regName = tagCompound.getString("Name");
-                ITrait trait = TraitManager.get(regName);
+        for (int i = 0; i < traits.size(); ++i) {
+            value = action.apply(traits.getTrait(i), traits.getLevel(i), value);
+        }
 
-                if (trait != null) {
-                    int level = tagCompound.getByte("Level");
-                    value = action.apply(trait, level, value);
-                }
-            }
+        return value;
+    }
+
+    /**
+     * Same as {@link #activateTraits(ItemStack, float, TraitFunction)}, but only for traits which
+     * implement the given hook. Use this when the action only calls the hook's method, so traits
+     * which would do nothing are skipped.
+     *
+     * @param gear       The {@link net.silentchaos512.gear.api.item.ICoreItem} affected
+     * @param inputValue The base value to have the traits act on.
+     * @param hook       The trait method the action calls
+     * @param action     The specific action to apply to each trait
+     * @return The {@code inputValue} modified by traits.
+     */
+    public static float activateTraits(ItemStack gear, final float inputValue, TraitHook hook, TraitFunction action) {
+        if (!GearHelper.isGear(gear)) {
+            SilentGear.LOGGER.error("Called activateTraits on non-gear item, {}", gear);
+            SilentGear.LOGGER.catching(new IllegalArgumentException());
+            return inputValue;
+        }
+
+        GearTraitView traits = GearTraitView.of(GearData.getPropertiesData(gear));
+        float value = inputValue;
+
+        for (int i : traits.getPositions(hook)) {
+            value = action.apply(traits.getTrait(i), traits.getLevel(i), value);
         }
 
         return value;
@@ -92,8 +114,8 @@ public final class TraitHelper {
 
     /**
      * Gets the level of the trait on the gear, or zero if it does not have the trait. Similar to
-     * {@link #activateTraits(ItemStack, float, TraitFunction)}, this pulls the traits straight from
-     * NBT to minimize object creation.
+     * {@link #activateTraits(ItemStack, float, TraitFunction)}, this uses the traits cached on the
+     * item.
      *
      * @param gear  The {@link net.silentchaos512.gear.api.item.ICoreItem}
      * @param trait The trait to look for
@@ -105,8 +127,8 @@ public final class TraitHelper {
 
     /**
      * Gets the level of the trait on the gear, or zero if it does not have the trait. Similar to
-     * {@link #activateTraits(ItemStack, float, TraitFunction)}, this pulls the traits straight from
-     * NBT to minimize object creation.
+     * {@link #activateTraits(ItemStack, float, TraitFunction)}, this uses the traits cached on the
+     * item.
      *
      * @param gear  The {@link net.silentchaos512.gear.api.item.ICoreItem}
      * @param trait The trait to look for
@@ -126,17 +148,7 @@ public final class TraitHelper {
      */
     public static int getTraitLevel(ItemStack gear, ResourceLocation traitId) {
         if (GearHelper.isGear(gear)) {
-            ListTag tagList = GearData.getPropertiesData(gear).getList("Traits", Tag.TAG_COMPOUND);
-
-            for (Tag nbt : tagList) {
-                if (nbt instanceof CompoundTag) {
-                    CompoundTag tagCompound = (CompoundTag) nbt;
-                    String regName = tagCompound.getString("Name");
-                    if (regName.equals(traitId.toString())) {
-                        return tagCompound.getByte("Level");
-                    }
-                }
-            }
+            return Math.max(GearTraitView.of(GearData.getPropertiesData(gear)).getLevel(traitId), 0);
         }
 
         return 0;
@@ -168,19 +180,7 @@ public final class TraitHelper {
      */
     public static boolean hasTrait(ItemStack gear, ResourceLocation traitId) {
         if (GearHelper.isGear(gear)) {
-            ListTag tagList = GearData.getPropertiesData(gear).getList("Traits", Tag.TAG_COMPOUND);
-
-            for (Tag nbt : tagList) {
-                if (nbt instanceof CompoundTag) {
-                    CompoundTag tagCompound = (CompoundTag) nbt;
-                    String regName = tagCompound.getString("Name");
-                    if (regName.equals(traitId.toString())) {
-                        return true;
-                    }
-                }
-            }
-
-            return false;
+            return GearTraitView.of(GearData.getPropertiesData(gear)).getLevel(traitId) >= 0;
         }
 
         return false;
@@ -192,12 +192,22 @@ public final class TraitHelper {
 
     @Deprecated
     public static int getHighestLevelEitherHand(Player player, ResourceLocation traitId) {
+        int level = EquippedTraits.getHighestLevel(player, EquippedTraits.HANDS, traitId);
+        if (level != EquippedTraits.UNKNOWN) {
+            return Math.max(level, 0);
+        }
+
         ItemStack main = player.getMainHandItem();
         ItemStack off = player.getOffhandItem();
         return Math.max(getTraitLevel(main, traitId), getTraitLevel(off, traitId));
     }
 
     public static int getHighestLevelArmor(Player player, DataResource<ITrait> trait) {
+        int level = EquippedTraits.getHighestLevel(player, EquippedTraits.ARMOR, trait.getId());
+        if (level != EquippedTraits.UNKNOWN) {
+            return Math.max(level, 0);
+        }
+
         int max = 0;
         for (ItemStack stack : player.getInventory().armor) {
             max = Math.max(max, getTraitLevel(stack, trait));
@@ -207,12 +217,20 @@ public final class TraitHelper {
 
     public static int getHighestLevelCurio(LivingEntity entity, DataResource<ITrait> trait) {
         if (ModList.get().isLoaded(Const.CURIOS)) {
+            int level = EquippedTraits.getHighestLevel(entity, EquippedTraits.CURIOS, trait.getId());
+            if (level != EquippedTraits.UNKNOWN) {
+                return Math.max(level, 0);
+            }
             return CuriosCompat.getHighestTraitLevel(entity, trait);
         }
         return 0;
     }
 
     public static int getHighestLevelArmorOrCurio(Player player, DataResource<ITrait> trait) {
+        int level = EquippedTraits.getHighestLevel(player, EquippedTraits.ARMOR | EquippedTraits.CURIOS, trait.getId());
+        if (level != EquippedTraits.UNKNOWN) {
+            return Math.max(level, 0);
+        }
         return Math.max(getHighestLevelArmor(player, trait), getHighestLevelCurio(player, trait));
     }
 
@@ -222,12 +240,22 @@ public final class TraitHelper {
 
     @Deprecated
     public static boolean hasTraitEitherHand(Player player, ResourceLocation traitId) {
+        int level = EquippedTraits.getHighestLevel(player, EquippedTraits.HANDS, traitId);
+        if (level != EquippedTraits.UNKNOWN) {
+            return level >= 0;
+        }
+
         ItemStack main = player.getMainHandItem();
         ItemStack off = player.getOffhandItem();
         return hasTrait(main, traitId) || hasTrait(off, traitId);
     }
 
     public static boolean hasTraitArmor(Player player, DataResource<ITrait> trait) {
+        int level = EquippedTraits.getHighestLevel(player, EquippedTraits.ARMOR, trait.getId());
+        if (level != EquippedTraits.UNKNOWN) {
+            return level >= 0;
+        }
+
         for (ItemStack stack : player.getInventory().armor) {
             if (hasTrait(stack, trait)) {
                 return true;
@@ -236,27 +264,85 @@ public final class TraitHelper {
         return false;
     }
 
+    /**
+     * Check if the gear item in the entity's equipment slot has the trait at any level.
+     *
+     * @param entity The entity
+     * @param slot   The equipment slot
+     * @param trait  The trait
+     * @return True if and only if the item in the slot has the trait
+     */
+    public static boolean hasTrait(LivingEntity entity, EquipmentSlot slot, DataResource<ITrait> trait) {
+        int level = EquippedTraits.getHighestLevel(entity, EquippedTraits.slotMask(slot), trait.getId());
+        if (level != EquippedTraits.UNKNOWN) {
+            return level >= 0;
+        }
+        return hasTrait(entity.getItemBySlot(slot), trait);
+    }
+
+    /**
+     * Counts the {@link net.silentchaos512.gear.api.item.ICoreArmor} pieces the entity is wearing
+     * which have the trait.
+     *
+     * @param entity The entity
+     * @param trait  The trait
+     * @return The number of armor pieces with the trait
+     */
+    public static int getArmorPieceCount(LivingEntity entity, ITrait trait) {
+        int count = EquippedTraits.countCoreArmor(entity, trait.getId());
+        if (count != EquippedTraits.UNKNOWN) {
+            return count;
+        }
+
+        count = 0;
+        for (ItemStack stack : entity.getArmorSlots()) {
+            if (stack.getItem() instanceof ICoreArmor && hasTrait(stack, trait)) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Discards the summary of the entity's equipped traits. This must be called whenever the
+     * entity's equipment or curios change.
+     *
+     * @param entity The entity
+     */
+    public static void invalidateEquippedTraits(LivingEntity entity) {
+        EquippedTraits.invalidate(entity);
+    }
+
     public static Map<ITrait, Integer> getCachedTraits(ItemStack gear) {
         if (!GearHelper.isGear(gear)) return ImmutableMap.of();
 
         Map<ITrait, Integer> result = new LinkedHashMap<>();
-        ListTag tagList = GearData.getPropertiesData(gear).getList("Traits", Tag.TAG_COMPOUND);
-
-        for (Tag nbt : tagList) {
-            if (nbt instanceof CompoundTag) {
-                CompoundTag tagCompound = (CompoundTag) nbt;
-                String name = tagCompound.getString("Name");
-                ITrait trait = TraitManager.get(name);
-                int level = tagCompound.getByte("Level");
-                if (trait != null && level > 0) {
-                    result.put(trait, level);
-                }
-            }
+        GearTraitView traits = GearTraitView.of(GearData.getPropertiesData(gear));
+
+        for (int i = 0; i < traits.mergedSize(); ++i) {
+            result.put(traits.getMergedTrait(i), traits.getMergedLevel(i));
         }
 
         return result;
     }
 
+    /**
+     * Performs an action for each of the gear's cached traits (see {@link
+     * #getCachedTraits(ItemStack)}) which implement the given hook.
+     *
+     * @param gear   The gear item
+     * @param hook   The trait method the action calls
+     * @param action The action, which receives the trait and its level
+     */
+    public static void forEachCachedTrait(ItemStack gear, TraitHook hook, ObjIntConsumer<ITrait> action) {
+        if (!GearHelper.isGear(gear)) return;
+
+        GearTraitView traits = GearTraitView.of(GearData.getPropertiesData(gear));
+        for (int i : traits.getMergedPositions(hook)) {
+            action.accept(traits.getMergedTrait(i), traits.getMergedLevel(i));
+        }
+    }
+
     @Deprecated
     public static Map<ITrait, Integer> getTraits(ItemStack gear, PartDataList parts) {
         return getTraits(gear, GearHelper.getType(gear), parts);
@@ -280,8 +366,9 @@ public final class TraitHelper {
 
         for (PartData part : parts) {
             PartGearKey key = PartGearKey.of(gearType, part);
+            TraitConditionContext context = new TraitConditionContext(key, gear, parts);
             for (TraitInstance inst : part.getTraits(key, gear)) {
-                if (inst.conditionsMatch(key, gear, parts)) {
+                if (inst.conditionsMatch(context)) {
                     ITrait trait = inst.getTrait();
                     // Get the highest value in any part
                     result.merge(trait, inst.getLevel(), Integer::max);
@@ -292,7 +379,9 @@ public final class TraitHelper {
         ITrait[] keys = result.keySet().toArray(new ITrait[0]);
 
         cancelTraits(result, keys);
-        MinecraftForge.EVENT_BUS.post(new GetTraitsEvent(gear, parts, result));
+        if (EventHelper.hasListeners(GetTraitsEvent.class)) {
+            MinecraftForge.EVENT_BUS.post(new GetTraitsEvent(gear, parts, result));
+        }
         return result;
     }
 
@@ -303,10 +392,11 @@ public final class TraitHelper {
 
         Map<ITrait, Integer> map = new LinkedHashMap<>();
         Map<ITrait, Integer> countMatsWithTrait = new HashMap<>();
+        TraitConditionContext context = new TraitConditionContext(partKey, gear, components);
 
         for (IGearComponentInstance<?> comp : components) {
             for (TraitInstance inst : comp.getTraits(partKey, gear)) {
-                if (inst.conditionsMatch(partKey, gear, components)) {
+                if (inst.conditionsMatch(context)) {
                     map.merge(inst.getTrait(), inst.getLevel(), Integer::sum);
                     countMatsWithTrait.merge(inst.getTrait(), 1, Integer::sum);
                 }
@@ -332,6 +422,36 @@ public final class TraitHelper {
     }
 
     private static void cancelTraits(Map<ITrait, Integer> mapToModify, ITrait[] keys) {
+        if (keys.length < 2) return;
+
+        TraitIndex traitIndex = TraitManager.getTraitIndex();
+        int[] indices = new int[keys.length];
+        int[] levels = new int[keys.length];
+
+        for (int i = 0; i < keys.length; ++i) {
+            int index = traitIndex.indexOf(keys[i].getId());
+            int level = mapToModify.get(keys[i]);
+            if (traitIndex.byIndex(index) != keys[i] || level < 0) {
+                // Trait is not in the current index (or level would look canceled), check every pair
+                cancelTraitsPairwise(mapToModify, keys);
+                return;
+            }
+            indices[i] = index;
+            levels[i] = level;
+        }
+
+        traitIndex.cancelTraits(indices, levels);
+
+        for (int i = 0; i < keys.length; ++i) {
+            if (levels[i] < 0) {
+                mapToModify.remove(keys[i]);
+            } else {
+                mapToModify.put(keys[i], levels[i]);
+            }
+        }
+    }
+
+    private static void cancelTraitsPairwise(Map<ITrait, Integer> mapToModify, ITrait[] keys) {
         for (int i = 0; i < keys.length; ++i) {
             ITrait t1 = keys[i];
 
@@ -363,18 +483,24 @@ public final class TraitHelper {
     }
 
     static void tickTraits(Level world, @Nullable Player player, ItemStack gear, boolean isEquipped) {
-        ListTag tagList = GearData.getPropertiesData(gear).getList("Traits", Tag.TAG_COMPOUND);
-
-        for (int i = 0; i < tagList.size(); ++i) {
-            CompoundTag tagCompound = tagList.getCompound(i);
-            String regName = tagCompound.getString("Name");
-            ITrait trait = TraitManager.get(regName);
-
-            if (trait != null) {
-                int level = tagCompound.getByte("Level");
-                TraitActionContext context = new TraitActionContext(player, level, gear);
-                trait.onUpdate(context, isEquipped);
-            }
+        // Most traits do nothing on update, and most gear has no traits that do anything
+        GearTraitView traits = GearTraitView.of(GearData.getPropertiesData(gear));
+        int[] positions = traits.getPositions(TraitHook.UPDATE);
+        if (positions.length == 0) return;
+
+        // Traits only run on ticks which are a multiple of their interval. Each player's tick count
+        // starts when they join, so the work is spread out across players.
+        int tick = player != null ? player.tickCount : 0;
+        if (player != null && tick % traits.getUpdatePeriod() != 0) return;
+
+        int[] intervals = traits.getUpdateIntervals();
+        for (int j = 0; j < positions.length; ++j) {
+            int interval = intervals[j];
+            if (interval > 1 && (player == null || tick % interval != 0)) continue;
+
+            int i = positions[j];
+            TraitActionContext context = new TraitActionContext(player, traits.getLevel(i), gear);
+            traits.getTrait(i).onUpdate(context, isEquipped);
         }
     }
 }
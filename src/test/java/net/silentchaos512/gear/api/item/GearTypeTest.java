@@ -0,0 +1,65 @@
+package net.silentchaos512.gear.api.item;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GearTypeTest {
+    @Test
+    void matchesSameAsParentWalk() {
+        List<GearType> types = new ArrayList<>(GearType.getValues());
+        for (GearType type : types) {
+            for (GearType other : types) {
+                for (boolean includeAll : new boolean[]{true, false}) {
+                    String message = type.getName() + " -> " + other.getName() + ", includeAll=" + includeAll;
+                    boolean expected = referenceMatches(type, other.getName(), includeAll);
+                    assertEquals(expected, type.matches(other, includeAll), message);
+                    assertEquals(expected, type.matches(other.getName(), includeAll), message);
+                    assertEquals(expected, type.matches("silentgear/" + other.getName(), includeAll), message);
+                }
+            }
+        }
+    }
+
+    @Test
+    void unknownNamesMatchNothing() {
+        for (GearType type : GearType.getValues()) {
+            assertFalse(type.matches("not_a_gear_type", true), type.getName());
+            assertFalse(type.matches("silentgear/not_a_gear_type", true), type.getName());
+        }
+        assertNull(GearType.forMatching("not_a_gear_type"));
+    }
+
+    @Test
+    void typesCreatedLaterMatchTheirAncestors() {
+        GearType child = GearType.getOrCreate("test_long_sword", GearType.SWORD);
+        GearType grandchild = GearType.getOrCreate("test_longer_sword", child);
+
+        assertTrue(grandchild.matches(child));
+        assertTrue(grandchild.matches(GearType.SWORD));
+        assertTrue(grandchild.matches(GearType.TOOL, false));
+        assertTrue(grandchild.matches(GearType.ALL, false));
+        assertFalse(child.matches(grandchild));
+        assertFalse(GearType.SWORD.matches(child));
+        assertFalse(grandchild.matches(GearType.ARMOR));
+    }
+
+    @Test
+    void allOnlyMatchesEverythingWhenIncluded() {
+        assertTrue(GearType.PART.matches(GearType.ALL, true));
+        assertFalse(GearType.PART.matches(GearType.ALL, false));
+        assertTrue(GearType.PICKAXE.matches(GearType.ALL, false));
+        assertTrue(GearType.PICKAXE.isGear());
+        assertFalse(GearType.FRAGMENT.isGear());
+    }
+
+    // The implementation of GearType#matches before ancestor sets were added
+    private static boolean referenceMatches(GearType type, String name, boolean includeAll) {
+        return (includeAll && "all".equals(name))
+                || type.getName().equals(name)
+                || (type.getParent() != null && referenceMatches(type.getParent(), name, includeAll));
+    }
+}
@@ -0,0 +1,127 @@
+package net.silentchaos512.gear.api.stats;
+
+import net.minecraft.util.Mth;
+import net.silentchaos512.gear.api.item.GearType;
+import net.silentchaos512.gear.api.stats.StatInstance.Operation;
+import net.silentchaos512.gear.api.util.StatGearKey;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StatModifierBufferTest {
+    private static final StatGearKey KEY = StatGearKey.of(ItemStats.MELEE_DAMAGE, GearType.ALL);
+
+    @Test
+    void matchesOriginalCompute() {
+        Random random = new Random(8675309L);
+        Operation[] ops = Operation.values();
+        StatModifierBuffer buffer = new StatModifierBuffer(1);
+
+        for (int run = 0; run < 2000; ++run) {
+            List<StatInstance> modifiers = new ArrayList<>();
+            int count = 1 + random.nextInt(40);
+            for (int i = 0; i < count; ++i) {
+                Operation op = ops[random.nextInt(ops.length)];
+                float value = (random.nextFloat() - 0.2f) * (op == Operation.MUL1 || op == Operation.MUL2 ? 2f : 50f);
+                modifiers.add(StatInstance.of(value, op, KEY));
+            }
+            float base = random.nextFloat() * 10f;
+
+            buffer.clear();
+            buffer.addAll(modifiers);
+            float expected = referenceCompute(base, modifiers);
+            assertEquals(expected, ItemStats.MELEE_DAMAGE.compute(base, false, GearType.ALL, GearType.ALL, buffer), "buffer, run " + run);
+            assertEquals(expected, ItemStats.MELEE_DAMAGE.compute(base, false, GearType.ALL, GearType.ALL, modifiers), "collection, run " + run);
+        }
+    }
+
+    @Test
+    void primaryModifierIsFirstAverage() {
+        List<StatInstance> modifiers = new ArrayList<>();
+        modifiers.add(StatInstance.of(0.5f, Operation.MUL1, KEY));
+        modifiers.add(StatInstance.of(4f, Operation.AVG, KEY));
+        modifiers.add(StatInstance.of(12f, Operation.AVG, KEY));
+        modifiers.add(StatInstance.of(1f, Operation.AVG, KEY));
+
+        StatModifierBuffer buffer = new StatModifierBuffer();
+        buffer.addAll(modifiers);
+        assertEquals(referenceCompute(1f, modifiers), ItemStats.MELEE_DAMAGE.compute(1f, false, GearType.ALL, GearType.ALL, buffer));
+    }
+
+    @Test
+    void emptyBufferReturnsBaseValue() {
+        StatModifierBuffer buffer = new StatModifierBuffer();
+        buffer.add(Operation.ADD, 5f);
+        buffer.clear();
+        assertEquals(-3f, ItemStats.MELEE_DAMAGE.compute(-3f, true, GearType.ALL, GearType.ALL, buffer));
+    }
+
+    @Test
+    void clampsLikeOriginalCompute() {
+        List<StatInstance> modifiers = new ArrayList<>();
+        modifiers.add(StatInstance.of(-100f, Operation.ADD, KEY));
+
+        StatModifierBuffer buffer = new StatModifierBuffer();
+        buffer.addAll(modifiers);
+        float expected = ItemStats.MELEE_DAMAGE.clampValue(referenceCompute(2f, modifiers));
+        assertEquals(expected, ItemStats.MELEE_DAMAGE.compute(2f, true, GearType.ALL, GearType.ALL, buffer));
+    }
+
+    // The implementation of ItemStat#compute before StatModifierBuffer was added
+
+    private static float referenceCompute(float baseValue, Collection<StatInstance> modifiers) {
+        float f0 = baseValue;
+        f0 += referenceWeightedAverage(modifiers);
+
+        for (StatInstance mod : modifiers)
+            if (mod.getOp() == Operation.MAX)
+                f0 = Math.max(f0, mod.getValue());
+
+        float f1 = f0;
+        for (StatInstance mod : modifiers)
+            if (mod.getOp() == Operation.MUL1)
+                f1 += f0 * mod.getValue();
+
+        for (StatInstance mod : modifiers)
+            if (mod.getOp() == Operation.MUL2)
+                f1 *= 1.0f + mod.getValue();
+
+        for (StatInstance mod : modifiers)
+            if (mod.getOp() == Operation.ADD)
+                f1 += mod.getValue();
+
+        return f1;
+    }
+
+    private static float referenceWeightedAverage(Collection<StatInstance> modifiers) {
+        float primaryMod = -1f;
+        for (StatInstance mod : modifiers) {
+            if (mod.getOp() == Operation.AVG && primaryMod < 0f) {
+                primaryMod = mod.getValue();
+            }
+        }
+        if (primaryMod <= 0) {
+            primaryMod = 1;
+        }
+
+        float ret = 0;
+        int count = 0;
+        float totalWeight = 0f;
+        for (StatInstance mod : modifiers) {
+            if (mod.getOp() == Operation.AVG) {
+                ++count;
+                float weightBase = 2f + 2f * (mod.getValue() - primaryMod) / primaryMod;
+                float weightBaseClamped = Mth.clamp(weightBase, 2f, 40f);
+                float weight = (float) Math.pow(weightBaseClamped, -(count == 0 ? count : 0.5 + 0.5f * count));
+                totalWeight += weight;
+                ret += mod.getValue() * weight;
+            }
+        }
+        return count > 0 && totalWeight > 0 ? ret / totalWeight : ret;
+    }
+}
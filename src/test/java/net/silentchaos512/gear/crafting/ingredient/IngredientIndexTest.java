@@ -0,0 +1,125 @@
+package net.silentchaos512.gear.crafting.ingredient;
+
+import com.mojang.datafixers.util.Pair;
+import net.minecraft.SharedConstants;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.item.crafting.Ingredient;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngredientIndexTest {
+    private static final Item[] ITEMS = {Items.IRON_INGOT, Items.GOLD_INGOT, Items.DIAMOND, Items.STICK, Items.FLINT, Items.STONE};
+
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+    }
+
+    // Tests like a custom ingredient would, so it can't be indexed by the items it lists
+    private static Ingredient unindexed(Item item) {
+        return new Ingredient(Stream.empty()) {
+            @Override
+            public boolean test(@Nullable ItemStack stack) {
+                return stack != null && stack.is(item);
+            }
+        };
+    }
+
+    @Nullable
+    private static String scan(List<Pair<String, Ingredient>> values, ItemStack stack) {
+        for (Pair<String, Ingredient> pair : values) {
+            if (pair.getSecond().test(stack)) {
+                return pair.getFirst();
+            }
+        }
+        return null;
+    }
+
+    @Test
+    void findsFirstMatchInListOrder() {
+        List<Pair<String, Ingredient>> values = new ArrayList<>();
+        values.add(Pair.of("iron", Ingredient.of(Items.IRON_INGOT)));
+        values.add(Pair.of("iron_or_gold", Ingredient.of(Items.IRON_INGOT, Items.GOLD_INGOT)));
+        values.add(Pair.of("gold", Ingredient.of(Items.GOLD_INGOT)));
+        values.add(Pair.of("stick", Ingredient.of(Items.STICK)));
+
+        IngredientIndex<Pair<String, Ingredient>> index = IngredientIndex.build(values, Pair::getSecond);
+        assertEquals("iron", name(index.find(new ItemStack(Items.IRON_INGOT))));
+        assertEquals("iron_or_gold", name(index.find(new ItemStack(Items.GOLD_INGOT))));
+        assertEquals("stick", name(index.find(new ItemStack(Items.STICK))));
+    }
+
+    @Test
+    void unindexedIngredientsKeepTheirPlace() {
+        List<Pair<String, Ingredient>> values = new ArrayList<>();
+        values.add(Pair.of("diamond", Ingredient.of(Items.DIAMOND)));
+        values.add(Pair.of("custom_flint", unindexed(Items.FLINT)));
+        values.add(Pair.of("flint", Ingredient.of(Items.FLINT)));
+        values.add(Pair.of("custom_diamond", unindexed(Items.DIAMOND)));
+        values.add(Pair.of("stone", Ingredient.of(Items.STONE)));
+        values.add(Pair.of("custom_stone", unindexed(Items.STONE)));
+
+        IngredientIndex<Pair<String, Ingredient>> index = IngredientIndex.build(values, Pair::getSecond);
+        for (Item item : ITEMS) {
+            ItemStack stack = new ItemStack(item);
+            assertEquals(scan(values, stack), name(index.find(stack)), item.toString());
+        }
+        assertEquals("custom_flint", name(index.find(new ItemStack(Items.FLINT))));
+        assertEquals("diamond", name(index.find(new ItemStack(Items.DIAMOND))));
+    }
+
+    @Test
+    void unlistedItemsMatchNothing() {
+        List<Pair<String, Ingredient>> values = new ArrayList<>();
+        values.add(Pair.of("iron", Ingredient.of(Items.IRON_INGOT)));
+        values.add(Pair.of("empty", Ingredient.EMPTY));
+
+        IngredientIndex<Pair<String, Ingredient>> index = IngredientIndex.build(values, Pair::getSecond);
+        assertNull(index.find(new ItemStack(Items.STICK)));
+        assertNull(index.find(ItemStack.EMPTY));
+    }
+
+    @Test
+    void repeatedItemsInOneIngredient() {
+        List<Pair<String, Ingredient>> values = new ArrayList<>();
+        values.add(Pair.of("twice", Ingredient.of(new ItemStack(Items.STICK), new ItemStack(Items.STICK, 2))));
+        values.add(Pair.of("stick", Ingredient.of(Items.STICK)));
+
+        IngredientIndex<Pair<String, Ingredient>> index = IngredientIndex.build(values, Pair::getSecond);
+        assertEquals("twice", name(index.find(new ItemStack(Items.STICK))));
+    }
+
+    @Test
+    void matchesFullScan() {
+        List<Pair<String, Ingredient>> values = new ArrayList<>();
+        for (int i = 0; i < 40; ++i) {
+            Item first = ITEMS[(i * 7) % ITEMS.length];
+            Item second = ITEMS[(i * 3 + 1) % ITEMS.length];
+            Ingredient ingredient = i % 5 == 0 ? unindexed(first) : Ingredient.of(first, second);
+            values.add(Pair.of("value" + i, ingredient));
+        }
+
+        IngredientIndex<Pair<String, Ingredient>> index = IngredientIndex.build(values, Pair::getSecond);
+        for (Item item : ITEMS) {
+            ItemStack stack = new ItemStack(item);
+            assertEquals(scan(values, stack), name(index.find(stack)), item.toString());
+        }
+        assertNull(index.find(new ItemStack(Items.DIRT)));
+    }
+
+    @Nullable
+    private static String name(@Nullable Pair<String, Ingredient> value) {
+        return value != null ? value.getFirst() : null;
+    }
+}
@@ -0,0 +1,136 @@
+package net.silentchaos512.gear.util;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.IntArrayTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.StringTag;
+import net.minecraft.resources.ResourceLocation;
+import net.silentchaos512.gear.api.stats.ItemStat;
+import net.silentchaos512.gear.api.stats.ItemStats;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GearStatViewTest {
+    @BeforeAll
+    static void nameStats() {
+        // Stats are normally named when they are registered
+        for (ItemStat stat : ItemStats.allStatsOrdered()) {
+            if (stat.getRegistryName() == null) {
+                stat.setRegistryName(new ResourceLocation("silentgear_test", "stat" + stat.getIndex()));
+            }
+        }
+    }
+
+    private static CompoundTag writeStats(ItemStat... stats) {
+        float[] values = new float[ItemStats.getStatCount()];
+        boolean[] present = new boolean[ItemStats.getStatCount()];
+        for (int i = 0; i < stats.length; ++i) {
+            values[stats[i].getIndex()] = 1.5f * (i + 1);
+            present[stats[i].getIndex()] = true;
+        }
+
+        CompoundTag properties = new CompoundTag();
+        GearStatView.write(properties, values, present);
+        return properties;
+    }
+
+    @Test
+    void packedStatsRoundTrip() {
+        CompoundTag properties = writeStats(ItemStats.DURABILITY, ItemStats.MELEE_DAMAGE, ItemStats.ARMOR);
+
+        GearStatView view = GearStatView.of(properties);
+        assertNotNull(view);
+        assertEquals(1.5f, view.get(ItemStats.DURABILITY, -1f));
+        assertEquals(3f, view.get(ItemStats.MELEE_DAMAGE, -1f));
+        assertEquals(4.5f, view.get(ItemStats.ARMOR, -1f));
+    }
+
+    @Test
+    void onlyPresentStatsAreWritten() {
+        CompoundTag properties = writeStats(ItemStats.DURABILITY);
+
+        GearStatView view = GearStatView.of(properties);
+        assertNotNull(view);
+        assertTrue(view.contains(ItemStats.DURABILITY));
+        assertFalse(view.contains(ItemStats.MELEE_DAMAGE));
+        assertEquals(-1f, view.get(ItemStats.MELEE_DAMAGE, -1f));
+
+        CompoundTag packed = properties.getCompound(GearStatView.NBT_PACKED_STATS);
+        assertEquals(1, packed.getList("Palette", StringTag.TAG_STRING).size());
+        assertEquals(1, packed.getIntArray("Values").length);
+    }
+
+    @Test
+    void itemsWithoutStatsHaveNoView() {
+        assertNull(GearStatView.of(new CompoundTag()));
+    }
+
+    @Test
+    void legacyStatsAreRead() {
+        CompoundTag legacy = new CompoundTag();
+        legacy.putFloat(ItemStats.DURABILITY.getStatId().toString(), 250f);
+        legacy.putFloat(ItemStats.HARVEST_SPEED.getStatId().toString(), 8f);
+        CompoundTag properties = new CompoundTag();
+        properties.put(GearStatView.NBT_LEGACY_STATS, legacy);
+
+        GearStatView view = GearStatView.of(properties);
+        assertNotNull(view);
+        assertEquals(250f, view.get(ItemStats.DURABILITY, -1f));
+        assertEquals(8f, view.get(ItemStats.HARVEST_SPEED, -1f));
+        assertFalse(view.contains(ItemStats.MELEE_DAMAGE));
+    }
+
+    @Test
+    void legacyStatsAddedInPlaceAreSeen() {
+        CompoundTag legacy = new CompoundTag();
+        legacy.putFloat(ItemStats.DURABILITY.getStatId().toString(), 250f);
+        CompoundTag properties = new CompoundTag();
+        properties.put(GearStatView.NBT_LEGACY_STATS, legacy);
+        assertFalse(GearStatView.of(properties).contains(ItemStats.ARMOR));
+
+        legacy.putFloat(ItemStats.ARMOR.getStatId().toString(), 3f);
+        assertEquals(3f, GearStatView.of(properties).get(ItemStats.ARMOR, -1f));
+    }
+
+    @Test
+    void writingReplacesLegacyStats() {
+        CompoundTag properties = new CompoundTag();
+        properties.put(GearStatView.NBT_LEGACY_STATS, new CompoundTag());
+
+        GearStatView.write(properties, new float[ItemStats.getStatCount()], new boolean[ItemStats.getStatCount()]);
+        assertFalse(properties.contains(GearStatView.NBT_LEGACY_STATS));
+        assertTrue(properties.contains(GearStatView.NBT_PACKED_STATS));
+    }
+
+    @Test
+    void unknownStatsAreSkipped() {
+        ListTag names = new ListTag();
+        names.add(StringTag.valueOf("silentgear_test:missing"));
+        names.add(StringTag.valueOf(ItemStats.DURABILITY.getStatId().toString()));
+        CompoundTag packed = new CompoundTag();
+        packed.putByte("Version", (byte) 1);
+        packed.put("Palette", names);
+        packed.put("Values", new IntArrayTag(new int[]{Float.floatToIntBits(7f), Float.floatToIntBits(100f)}));
+        CompoundTag properties = new CompoundTag();
+        properties.put(GearStatView.NBT_PACKED_STATS, packed);
+
+        GearStatView view = GearStatView.of(properties);
+        assertNotNull(view);
+        assertEquals(100f, view.get(ItemStats.DURABILITY, -1f));
+    }
+
+    @Test
+    void viewIsReusedUntilStatsAreWritten() {
+        CompoundTag properties = writeStats(ItemStats.DURABILITY);
+        GearStatView view = GearStatView.of(properties);
+        assertSame(view, GearStatView.of(properties));
+
+        view.writeWith(properties, ItemStats.ARMOR, 2f);
+        GearStatView newView = GearStatView.of(properties);
+        assertNotSame(view, newView);
+        assertEquals(1.5f, newView.get(ItemStats.DURABILITY, -1f));
+        assertEquals(2f, newView.get(ItemStats.ARMOR, -1f));
+    }
+}
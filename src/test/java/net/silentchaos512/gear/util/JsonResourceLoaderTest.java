@@ -0,0 +1,172 @@
+package net.silentchaos512.gear.util;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.PackResources;
+import net.minecraft.server.packs.resources.Resource;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.server.packs.resources.SimpleResource;
+import net.minecraft.util.GsonHelper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonResourceLoaderTest {
+    private static final Gson GSON = new Gson();
+    private static final String DATA_PATH = "silentgear_test";
+
+    private static ResourceLocation file(String name) {
+        return new ResourceLocation("silentgear", DATA_PATH + "/" + name + ".json");
+    }
+
+    private static ResourceManager resourceManager(Map<ResourceLocation, String> files) {
+        return new ResourceManager() {
+            @Override
+            public Set<String> getNamespaces() {
+                return Collections.singleton("silentgear");
+            }
+
+            @Override
+            public boolean hasResource(ResourceLocation location) {
+                return files.containsKey(location);
+            }
+
+            @Override
+            public List<Resource> getResources(ResourceLocation location) throws IOException {
+                return Collections.singletonList(getResource(location));
+            }
+
+            @Override
+            public Collection<ResourceLocation> listResources(String path, Predicate<String> filter) {
+                return files.keySet();
+            }
+
+            @Override
+            public Stream<PackResources> listPacks() {
+                return Stream.empty();
+            }
+
+            @Override
+            public Resource getResource(ResourceLocation location) throws IOException {
+                String contents = files.get(location);
+                if (contents == null) {
+                    throw new FileNotFoundException(location.toString());
+                }
+                return new SimpleResource("test_pack", location, new ByteArrayInputStream(contents.getBytes(StandardCharsets.UTF_8)), null);
+            }
+        };
+    }
+
+    // Slows down earlier files, so they finish after later ones
+    private static String deserializeSlowly(ResourceLocation name, String packName, JsonObject json) {
+        try {
+            Thread.sleep(GsonHelper.getAsInt(json, "delay", 0));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return name + "@" + packName;
+    }
+
+    @Test
+    void resultsAreInFileOrder() {
+        Map<ResourceLocation, String> files = new LinkedHashMap<>();
+        List<ResourceLocation> ids = new ArrayList<>();
+        for (int i = 0; i < 16; ++i) {
+            ResourceLocation id = file("sub/file" + i);
+            files.put(id, "{\"delay\": " + (16 - i) * 5 + "}");
+            ids.add(id);
+        }
+
+        List<JsonResourceLoader.Entry<String>> entries = JsonResourceLoader.load(resourceManager(files), ids, DATA_PATH, GSON, JsonResourceLoaderTest::deserializeSlowly);
+        assertEquals(ids.size(), entries.size());
+        for (int i = 0; i < ids.size(); ++i) {
+            JsonResourceLoader.Entry<String> entry = entries.get(i);
+            assertEquals(ids.get(i), entry.getId());
+            assertEquals(new ResourceLocation("silentgear", "sub/file" + i), entry.getName());
+            assertEquals("test_pack", entry.getPackName());
+            assertEquals("silentgear:sub/file" + i + "@test_pack", entry.getValue());
+            assertNull(entry.getError());
+        }
+    }
+
+    @Test
+    void parseErrorsAreKept() {
+        Map<ResourceLocation, String> files = new LinkedHashMap<>();
+        files.put(file("invalid_json"), "{ not json");
+        files.put(file("rejected"), "{}");
+        files.put(file("bad_argument"), "{}");
+        files.put(file("valid"), "{}");
+
+        List<JsonResourceLoader.Entry<String>> entries = JsonResourceLoader.load(resourceManager(files), files.keySet(), DATA_PATH, GSON, (name, packName, json) -> {
+            if (name.getPath().equals("rejected")) throw new JsonParseException("rejected");
+            if (name.getPath().equals("bad_argument")) throw new IllegalArgumentException("bad argument");
+            return name.getPath();
+        });
+
+        assertInstanceOf(JsonParseException.class, entries.get(0).getError());
+        assertInstanceOf(JsonParseException.class, entries.get(1).getError());
+        assertEquals("rejected", entries.get(1).getError().getMessage());
+        assertInstanceOf(IllegalArgumentException.class, entries.get(2).getError());
+        for (int i = 0; i < 3; ++i) {
+            assertNull(entries.get(i).getValue());
+            assertFalse(entries.get(i).isReadError());
+            assertEquals("test_pack", entries.get(i).getPackName());
+        }
+        assertEquals("valid", entries.get(3).getValue());
+        assertNull(entries.get(3).getError());
+    }
+
+    @Test
+    void readErrorsAreKept() {
+        Map<ResourceLocation, String> files = new LinkedHashMap<>();
+        files.put(file("present"), "{}");
+        List<ResourceLocation> ids = Arrays.asList(file("missing"), file("present"));
+
+        List<JsonResourceLoader.Entry<String>> entries = JsonResourceLoader.load(resourceManager(files), ids, DATA_PATH, GSON, (name, packName, json) -> name.getPath());
+
+        JsonResourceLoader.Entry<String> missing = entries.get(0);
+        assertTrue(missing.isReadError());
+        assertInstanceOf(IOException.class, missing.getError());
+        assertEquals("ERROR", missing.getPackName());
+        assertNull(missing.getJson());
+        assertEquals("present", entries.get(1).getValue());
+    }
+
+    @Test
+    void otherExceptionsAreRethrown() {
+        Map<ResourceLocation, String> files = new LinkedHashMap<>();
+        files.put(file("a"), "{}");
+        files.put(file("b"), "{}");
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () ->
+                JsonResourceLoader.load(resourceManager(files), files.keySet(), DATA_PATH, GSON, (name, packName, json) -> {
+                    if (name.getPath().equals("b")) throw new IllegalStateException("broken deserializer");
+                    return name.getPath();
+                }));
+        assertEquals("broken deserializer", ex.getMessage());
+    }
+
+    @Test
+    void skippedFilesHaveNoValue() {
+        Map<ResourceLocation, String> files = new LinkedHashMap<>();
+        files.put(file("skipped"), "{\"conditions\": []}");
+
+        List<JsonResourceLoader.Entry<String>> entries = JsonResourceLoader.load(resourceManager(files), files.keySet(), DATA_PATH, GSON, (name, packName, json) -> null);
+
+        JsonResourceLoader.Entry<String> entry = entries.get(0);
+        assertNull(entry.getValue());
+        assertNull(entry.getError());
+        assertNotNull(entry.getJson());
+        assertTrue(entry.getJson().has("conditions"));
+    }
+}